@@ -0,0 +1,73 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Contended get/put on the by-id cache; the key space is larger than the capacity so evictions happen too
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketCacheBenchmark {
+
+    private static final int CAPACITY = 10_000;
+    private static final int KEY_SPACE = 20_000;
+
+    private TicketCache cache;
+    private TicketResponse[] tickets;
+
+    @Setup
+    public void setUp() {
+        cache = TicketCache.newInstance();
+        cache.configure(CAPACITY, Duration.ofMinutes(10), 16, 100_000);
+
+        tickets = new TicketResponse[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            long id = i + 1;
+            tickets[i] = new TicketResponse(id, id, 101L, TicketType.VIP, 2000.0, 3000.0);
+            if (i < CAPACITY) {
+                cache.putById(id, tickets[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TicketResponse get() {
+        return cache.getById(tickets[ThreadLocalRandom.current().nextInt(KEY_SPACE)].id());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(6)
+    public TicketResponse readWriteGet() {
+        return cache.getById(tickets[ThreadLocalRandom.current().nextInt(KEY_SPACE)].id());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public void readWritePut() {
+        TicketResponse ticket = tickets[ThreadLocalRandom.current().nextInt(KEY_SPACE)];
+        cache.putById(ticket.id(), ticket);
+    }
+}
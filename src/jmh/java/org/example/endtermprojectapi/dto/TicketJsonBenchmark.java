@@ -0,0 +1,49 @@
+package org.example.endtermprojectapi.dto;
+
+import org.example.endtermprojectapi.model.TicketType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketJsonBenchmark {
+
+    @Param({"1", "1000"})
+    public int rows;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private List<TicketResponse> tickets;
+
+    @Setup
+    public void setUp() {
+        tickets = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            tickets.add(new TicketResponse(i, i, 101L, i % 2 == 0 ? TicketType.VIP : TicketType.STANDARD, 2000.0, 3000.0));
+        }
+        // first call builds and caches the serializers
+        mapper.writeValueAsBytes(tickets);
+    }
+
+    @Benchmark
+    public byte[] serializeList() {
+        return mapper.writeValueAsBytes(tickets);
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.endtermprojectapi.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.dto.ErrorResponse;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A 404 for an unknown id, from the lookup to the JSON body, without the DB round trip.
+// Run with -prof gc and compare gc.alloc.rate.norm: the old path pays for two stack traces.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotFoundPathBenchmark {
+
+    private static final int MISSING = 1_024;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private TicketCache cache;
+    private GlobalExceptionHandler handler;
+    private Long[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cache = TicketCache.newInstance();
+        cache.configureMissing(MISSING, Duration.ofMinutes(10), 1);
+        handler = new GlobalExceptionHandler(new TicketMetrics(new SimpleMeterRegistry()));
+        ids = new Long[MISSING];
+        for (int i = 0; i < MISSING; i++) {
+            ids[i] = 1_000_000L + i;
+            cache.putMissing(ids[i], cache.version());
+        }
+        // first calls build and cache the serializers and the error counter
+        mapper.writeValueAsBytes(previousPath());
+        mapper.writeValueAsBytes(negativeCacheHit());
+    }
+
+    // The call chain before the negative cache, minus the DB round trip: queryForObject throws
+    // EmptyResultDataAccessException for the empty result, TicketService.getById rethrows it as a
+    // NotFoundException with a stack trace, and GlobalExceptionHandler answers with a LinkedHashMap body.
+    // In a real request both stack traces are deeper (servlet and Spring MVC frames), so this is a lower bound.
+    @Benchmark
+    public Object previousPath() {
+        Long id = nextId();
+        try {
+            return previousGetById(id);
+        } catch (PreviousNotFoundException ex) {
+            return previousBuild(HttpStatus.NOT_FOUND, ex.getMessage()).getBody();
+        }
+    }
+
+    // The id was missed recently: answered from the negative cache with a stackless exception
+    @Benchmark
+    public ErrorResponse negativeCacheHit() {
+        Long id = nextId();
+        try {
+            if (cache.isMissing(id)) {
+                throw new NotFoundException("Ticket not found: id=" + id);
+            }
+            return null;
+        } catch (NotFoundException ex) {
+            return handler.handleNotFound(ex).getBody();
+        }
+    }
+
+    @Benchmark
+    public byte[] previousPathJson() {
+        return mapper.writeValueAsBytes(previousPath());
+    }
+
+    @Benchmark
+    public byte[] negativeCacheHitJson() {
+        return mapper.writeValueAsBytes(negativeCacheHit());
+    }
+
+    private Long nextId() {
+        return ids[next++ & (MISSING - 1)];
+    }
+
+    private static Object previousGetById(Long id) {
+        try {
+            return previousFindById(id);
+        } catch (EmptyResultDataAccessException ex) {
+            throw new PreviousNotFoundException("Ticket not found: id=" + id);
+        }
+    }
+
+    // What JdbcTemplate.queryForObject does with the rows of a query that matched nothing
+    private static Object previousFindById(Long id) {
+        List<Object> rows = List.of();
+        return DataAccessUtils.nullableSingleResult(rows);
+    }
+
+    private static ResponseEntity<Map<String, Object>> previousBuild(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+
+    // NotFoundException as it was, with a stack trace
+    private static final class PreviousNotFoundException extends RuntimeException {
+        private PreviousNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.endtermprojectapi.patterns.builder;
+
+import org.example.endtermprojectapi.model.TicketBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketBuilderBenchmark {
+
+    private long customerId = 2L;
+    private long movieId = 101L;
+    private double basePrice = 2000.0;
+
+    @Benchmark
+    public TicketBase buildVip() {
+        return new TicketBuilder()
+                .customerId(customerId)
+                .movieId(movieId)
+                .type("vip")
+                .basePrice(basePrice)
+                .build();
+    }
+
+    @Benchmark
+    public TicketBase buildStandard() {
+        return new TicketBuilder()
+                .customerId(customerId)
+                .movieId(movieId)
+                .type("STANDARD")
+                .basePrice(basePrice)
+                .build();
+    }
+}
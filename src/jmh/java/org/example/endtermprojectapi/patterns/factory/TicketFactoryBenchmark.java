@@ -0,0 +1,39 @@
+package org.example.endtermprojectapi.patterns.factory;
+
+import org.example.endtermprojectapi.model.TicketBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketFactoryBenchmark {
+
+    private final TicketFactory factory = new TicketFactory();
+
+    private long id = 1L;
+    private String vip = "VIP";
+    private String standard = "STANDARD";
+
+    @Benchmark
+    public TicketBase createFromDbVip() {
+        return factory.createFromDb(id, 2L, 101L, vip, 2000.0, 3000.0);
+    }
+
+    @Benchmark
+    public TicketBase createFromDbStandard() {
+        return factory.createFromDb(id, 2L, 101L, standard, 2000.0, 2000.0);
+    }
+}
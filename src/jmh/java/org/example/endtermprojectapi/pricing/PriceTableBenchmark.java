@@ -0,0 +1,74 @@
+package org.example.endtermprojectapi.pricing;
+
+import org.example.endtermprojectapi.cache.LongIntHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with -prof gc: gc.alloc.rate.norm should be ~0 B/op for the priced paths
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriceTableBenchmark {
+
+    private static final int MOVIES = 5_000;
+    private static final int CUSTOMERS = 200_000;
+
+    private PriceTable table;
+    private Instant showtime;
+    private long movieId;
+    private long customerId;
+
+    @Setup(Level.Trial)
+    public void compile() {
+        List<PricingRule> rules = new ArrayList<>();
+        long id = 1;
+        rules.add(new PricingRule(id++, "STANDARD", null, null, 18, 23, 1.2, 0, 0));
+        rules.add(new PricingRule(id++, "VIP", null, "GOLD", 0, 24, 1.4, 0, 0));
+        for (long movie = 1; movie <= MOVIES; movie++) {
+            rules.add(new PricingRule(id++, "STANDARD", movie, null, 0, 24, 1.0 + movie % 7 / 10.0, 0, 0));
+            rules.add(new PricingRule(id++, "VIP", movie, "SILVER", 12, 18, 1.3, 2, 1));
+        }
+        LongIntHashMap tiers = new LongIntHashMap(CUSTOMERS);
+        for (long customer = 1; customer <= CUSTOMERS; customer++) {
+            if (customer % 3 != 0) {
+                tiers.put(customer, (int) (customer % 3));
+            }
+        }
+        table = PriceTable.compile(rules, List.of("GOLD", "SILVER"), tiers, ZoneOffset.UTC);
+        showtime = Instant.parse("2026-10-18T19:30:00Z");
+    }
+
+    @Setup(Level.Iteration)
+    public void pick() {
+        movieId = 1 + (movieId + 1_237) % (MOVIES * 2);
+        customerId = 1 + (customerId + 7_919) % CUSTOMERS;
+    }
+
+    @Benchmark
+    public double priceStandardWithShowtime() {
+        return table.finalPrice("STANDARD", movieId, customerId, showtime, 12.5);
+    }
+
+    @Benchmark
+    public double priceVipWithoutShowtime() {
+        return table.finalPrice("VIP", movieId, customerId, null, 12.5);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.endtermprojectapi.repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.example.endtermprojectapi.model.StandardTicket;
+import org.example.endtermprojectapi.model.TicketBase;
+import org.example.endtermprojectapi.model.VipTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Runs against a throwaway Postgres process, so numbers include real JDBC/driver work but no network
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketRepositoryBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private TicketRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(postgres.getPostgresDatabase());
+        config.setMaximumPoolSize(4);
+        dataSource = new HikariDataSource(config);
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        repository = new TicketRepository(
+                new JdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource),
+                new TicketMetrics(new SimpleMeterRegistry())
+        );
+
+        List<TicketBase> seed = new ArrayList<>(ROWS);
+        for (long i = 1; i <= ROWS; i++) {
+            seed.add(i % 2 == 0
+                    ? new VipTicket(i, 101L, 2000.0)
+                    : new StandardTicket(i, 101L, 2000.0));
+        }
+        repository.saveAll(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Optional<TicketResponse> findById() {
+        return repository.findById(1L + ThreadLocalRandom.current().nextInt(ROWS));
+    }
+
+    @Benchmark
+    public List<TicketResponse> findPage() {
+        return repository.findPage(ThreadLocalRandom.current().nextInt(ROWS - 100), 100);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<TicketResponse> findAll() {
+        return repository.findAll();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketBase;
+import org.example.endtermprojectapi.model.TicketType;
+import org.example.endtermprojectapi.patterns.factory.TicketFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Row -> DTO mapping for findAll/findById, with the column values already decoded by the driver.
+// Run with -prof gc and compare gc.alloc.rate.norm: the previous path builds a TicketBase and then copies it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketMappingBenchmark {
+
+    @Param({"1", "1000"})
+    public int rows;
+
+    private final TicketFactory factory = new TicketFactory();
+
+    private long[] ids;
+    private long[] customerIds;
+    private String[] types;
+    private Instant updatedAt;
+
+    @Setup
+    public void setUp() {
+        ids = new long[rows];
+        customerIds = new long[rows];
+        types = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = 1_000L + i;
+            customerIds[i] = 5_000L + i;
+            types[i] = i % 2 == 0 ? "VIP" : "STANDARD";
+        }
+        updatedAt = Instant.now();
+    }
+
+    // factory.createFromDb into a mutable TicketBase plus the version columns, then TicketService.toResponse
+    // into the old POJO
+    @Benchmark
+    public List<PreviousTicketResponse> previousMapping() {
+        List<PreviousTicketResponse> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            TicketBase t = factory.createFromDb(ids[i], customerIds[i], 101L, types[i], 2000.0, 3000.0);
+            t.setVersion(1L);
+            t.setUpdatedAt(updatedAt);
+            t.setShowtime(null);
+            out.add(new PreviousTicketResponse(t.getId(), t.getCustomerId(), t.getMovieId(), t.getType(),
+                    t.getBasePrice(), t.getFinalPrice(), t.getVersion(), t.getUpdatedAt(), t.getShowtime()));
+        }
+        return out;
+    }
+
+    // TicketRepository.TICKET_ROW: one record per row, the type as an enum constant
+    @Benchmark
+    public List<TicketResponse> recordMapping() {
+        List<TicketResponse> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            out.add(new TicketResponse(ids[i], customerIds[i], 101L, TicketType.fromDb(types[i]),
+                    2000.0, 3000.0, 1L, updatedAt, null));
+        }
+        return out;
+    }
+
+    // Shape of TicketResponse before it became a record: boxed ids and the type String
+    public static final class PreviousTicketResponse {
+        private final Long id;
+        private final Long customerId;
+        private final Long movieId;
+        private final String type;
+        private final double basePrice;
+        private final double finalPrice;
+        private final long version;
+        private final Instant updatedAt;
+        private final Instant showtime;
+
+        PreviousTicketResponse(Long id, Long customerId, Long movieId, String type, double basePrice,
+                               double finalPrice, long version, Instant updatedAt, Instant showtime) {
+            this.id = id;
+            this.customerId = customerId;
+            this.movieId = movieId;
+            this.type = type;
+            this.basePrice = basePrice;
+            this.finalPrice = finalPrice;
+            this.version = version;
+            this.updatedAt = updatedAt;
+            this.showtime = showtime;
+        }
+    }
+}
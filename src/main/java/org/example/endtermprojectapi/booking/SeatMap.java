@@ -0,0 +1,166 @@
+package org.example.endtermprojectapi.booking;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat occupancy of one showing: one bit per seat in an AtomicLongArray, claimed and released with CAS.
+ * A free-seat counter is reserved before any bit is touched, so once a show is sold out every further
+ * request fails on a single atomic read instead of scanning. Seats are numbered from 1.
+ */
+public final class SeatMap {
+
+    private final int capacity;
+    private final AtomicLongArray words;
+    // never more than the free bits: claims reserve here first, releases clear bits first
+    private final AtomicInteger free;
+    private final long loadedAtNanos;
+
+    public SeatMap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity + 63) >>> 6);
+        this.free = new AtomicInteger(capacity);
+        this.loadedAtNanos = System.nanoTime();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int available() {
+        return free.get();
+    }
+
+    public long loadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    public boolean isTaken(int seat) {
+        checkSeat(seat);
+        int bit = seat - 1;
+        return (words.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    // For loading what the database already has; a seat that is already set is ignored
+    public void markTaken(int seat) {
+        checkSeat(seat);
+        if (setBit(seat - 1)) {
+            free.decrementAndGet();
+        }
+    }
+
+    // All of these seats or none of them
+    public boolean tryClaim(int[] seats) {
+        for (int seat : seats) {
+            checkSeat(seat);
+        }
+        if (!reserve(seats.length)) {
+            return false;
+        }
+        for (int i = 0; i < seats.length; i++) {
+            if (!setBit(seats[i] - 1)) {
+                for (int j = 0; j < i; j++) {
+                    clearBit(seats[j] - 1);
+                }
+                free.addAndGet(seats.length);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The lowest free seats, or null when fewer than count are left
+    public int[] claimAny(int count) {
+        if (count <= 0 || !reserve(count)) {
+            return null;
+        }
+        // the reservation guarantees enough free bits exist; a pass can still lose races and rescan
+        int[] claimed = new int[count];
+        int n = 0;
+        while (n < count) {
+            for (int w = 0; w < words.length() && n < count; w++) {
+                long word = words.get(w);
+                long open = ~word & validBits(w);
+                while (open != 0 && n < count) {
+                    long bit = Long.lowestOneBit(open);
+                    if (words.compareAndSet(w, word, word | bit)) {
+                        word |= bit;
+                        claimed[n++] = (w << 6) + Long.numberOfTrailingZeros(bit) + 1;
+                    } else {
+                        word = words.get(w);
+                    }
+                    open = ~word & validBits(w);
+                }
+            }
+        }
+        Arrays.sort(claimed);
+        return claimed;
+    }
+
+    public void release(int[] seats) {
+        int released = 0;
+        for (int seat : seats) {
+            checkSeat(seat);
+            if (clearBit(seat - 1)) {
+                released++;
+            }
+        }
+        free.addAndGet(released);
+    }
+
+    private boolean reserve(int count) {
+        while (true) {
+            int current = free.get();
+            if (current < count) {
+                return false;
+            }
+            if (free.compareAndSet(current, current - count)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean setBit(int bit) {
+        int w = bit >>> 6;
+        long mask = 1L << bit;
+        while (true) {
+            long word = words.get(w);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(w, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean clearBit(int bit) {
+        int w = bit >>> 6;
+        long mask = 1L << bit;
+        while (true) {
+            long word = words.get(w);
+            if ((word & mask) == 0) {
+                return false;
+            }
+            if (words.compareAndSet(w, word, word & ~mask)) {
+                return true;
+            }
+        }
+    }
+
+    // the last word is only partly backed by seats
+    private long validBits(int w) {
+        int seatsInWord = Math.min(64, capacity - (w << 6));
+        return seatsInWord == 64 ? -1L : (1L << seatsInWord) - 1;
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 1 || seat > capacity) {
+            throw new IllegalArgumentException("seat must be between 1 and " + capacity);
+        }
+    }
+}
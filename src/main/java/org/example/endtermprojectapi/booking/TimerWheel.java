@@ -0,0 +1,99 @@
+package org.example.endtermprojectapi.booking;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: scheduling and cancelling are O(1), and a tick only walks one bucket.
+ * Deadlines are rounded up to the tick; an entry further out than one revolution stays in its
+ * bucket until the pass that reaches its deadline. Cancelled entries are dropped lazily.
+ */
+public final class TimerWheel<T> {
+
+    private final long tickNanos;
+    private final List<Timeout<T>>[] buckets;
+    private final int mask;
+    private final long startNanos;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("tick must be > 0");
+        }
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickNanos = tickNanos;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new LinkedList<>();
+        }
+        this.mask = size - 1;
+        this.startNanos = startNanos;
+    }
+
+    public synchronized Timeout<T> schedule(T item, long deadlineNanos) {
+        long tick = Math.max(currentTick + 1, ceilDiv(deadlineNanos - startNanos, tickNanos));
+        Timeout<T> timeout = new Timeout<>(item, tick);
+        buckets[(int) (tick & mask)].add(timeout);
+        return timeout;
+    }
+
+    // Everything due by nowNanos, in no particular order
+    public synchronized List<T> advance(long nowNanos) {
+        long targetTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>();
+        // after a long stall every bucket is visited once, not once per missed tick
+        long steps = Math.min(targetTick - currentTick, buckets.length);
+        for (long step = 1; step <= steps; step++) {
+            Iterator<Timeout<T>> it = buckets[(int) ((currentTick + step) & mask)].iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.cancelled) {
+                    it.remove();
+                } else if (timeout.deadlineTick <= targetTick) {
+                    it.remove();
+                    expired.add(timeout.item);
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (List<Timeout<T>> bucket : buckets) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.endtermprojectapi.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Lock-striped LRU cache with an optional per-entry TTL.
+ * Capacity is expressed as a total weight (1 per entry unless a weigher is given)
+ * and is split evenly across segments, each of which evicts its own least recently used entries.
+ */
+public final class BoundedCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public BoundedCache(long maxWeight, Duration ttl, int concurrency) {
+        this(maxWeight, ttl, concurrency, v -> 1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(long maxWeight, Duration ttl, int concurrency, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("maxWeight must be > 0");
+        if (concurrency <= 0) throw new IllegalArgumentException("concurrency must be > 0");
+
+        int count = Integer.highestOneBit(Math.min(concurrency, 1 << 16));
+        while (count > 1 && maxWeight / count < 1) {
+            count >>= 1;
+        }
+
+        this.segments = new Segment[count];
+        long perSegment = Math.max(1, maxWeight / count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.segmentMask = count - 1;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? 0L : ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = ttlNanos > 0 ? System.nanoTime() : 0L;
+
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.map.get(key);
+            if (entry != null && ttlNanos > 0 && now - entry.writtenAt >= ttlNanos) {
+                segment.map.remove(key);
+                segment.weight -= entry.weight;
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    // Like put(), but keeps a live entry for which keepCurrent(current, value) holds, e.g. a newer version of the same row.
+    // Returns false if the value was not stored.
+    public boolean put(K key, V value, BiPredicate<? super V, ? super V> keepCurrent) {
+        long weight = weigher.applyAsLong(value);
+        Segment<K, V> segment = segmentFor(key);
+        if (weight > segment.maxWeight) {
+            // would evict the whole segment and still not fit
+            invalidate(key);
+            return false;
+        }
+
+        long now = ttlNanos > 0 ? System.nanoTime() : 0L;
+        Entry<V> entry = new Entry<>(value, weight, now);
+        segment.lock.lock();
+        try {
+            if (keepCurrent != null) {
+                Entry<V> current = segment.map.get(key);
+                if (current != null && (ttlNanos == 0 || now - current.writtenAt < ttlNanos)
+                        && keepCurrent.test(current.value, value)) {
+                    return false;
+                }
+            }
+            Entry<V> previous = segment.map.put(key, entry);
+            if (previous != null) {
+                segment.weight -= previous.weight;
+            }
+            segment.weight += weight;
+
+            Iterator<Map.Entry<K, Entry<V>>> eldest = segment.map.entrySet().iterator();
+            while (segment.weight > segment.maxWeight && eldest.hasNext()) {
+                Entry<V> victim = eldest.next().getValue();
+                eldest.remove();
+                segment.weight -= victim.weight;
+                evictions.increment();
+            }
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Entry<V> removed = segment.map.remove(key);
+            if (removed != null) {
+                segment.weight -= removed.weight;
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.map.clear();
+                segment.weight = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long weight() {
+        long weight = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                weight += segment.weight;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return weight;
+    }
+
+    public long maxWeight() { return maxWeight; }
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+    public long expirationCount() { return expirations.sum(); }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & segmentMask];
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        // access-ordered, so iteration starts at the least recently used entry
+        private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxWeight;
+        private long weight;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    private record Entry<V>(V value, long weight, long writtenAt) {}
+}
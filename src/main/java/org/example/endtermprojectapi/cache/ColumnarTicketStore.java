@@ -0,0 +1,242 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * All tickets held column by column in primitive arrays, kept sorted by id.
+ * Roughly 70 bytes per ticket plus the id index, against several hundred for the object graph.
+ * TicketResponse objects are only materialized for the rows a reader asks for.
+ */
+public final class ColumnarTicketStore {
+
+    private static final byte REMOVED = -1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final TicketType[] TYPES = TicketType.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private long[] customerIds;
+    private long[] movieIds;
+    // TicketType ordinals
+    private byte[] types;
+    private double[] basePrices;
+    private double[] finalPrices;
+    private long[] versions;
+    // epoch microseconds (Postgres timestamp precision), NO_TIMESTAMP when unknown
+    private long[] updatedAt;
+    private long[] showtimes;
+
+    // slots in use, including removed ones that have not been compacted yet
+    private int length;
+    private int removed;
+
+    private final LongIntHashMap index;
+
+    public ColumnarTicketStore(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ids = new long[capacity];
+        customerIds = new long[capacity];
+        movieIds = new long[capacity];
+        types = new byte[capacity];
+        basePrices = new double[capacity];
+        finalPrices = new double[capacity];
+        versions = new long[capacity];
+        updatedAt = new long[capacity];
+        showtimes = new long[capacity];
+        index = new LongIntHashMap(capacity);
+    }
+
+    public TicketResponse get(long id) {
+        lock.readLock().lock();
+        try {
+            int i = index.get(id);
+            return i == LongIntHashMap.MISSING ? null : row(i);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A row never goes back to an older version, so a write applied late does not undo a newer one
+    public boolean upsert(TicketResponse ticket) {
+        long id = ticket.id();
+        lock.writeLock().lock();
+        try {
+            int i = index.get(id);
+            if (i == LongIntHashMap.MISSING) {
+                i = insertSlot(id);
+            } else if (versions[i] > ticket.version()) {
+                return false;
+            }
+            customerIds[i] = ticket.customerId();
+            movieIds[i] = ticket.movieId();
+            types[i] = (byte) ticket.type().ordinal();
+            basePrices[i] = ticket.basePrice();
+            finalPrices[i] = ticket.finalPrice();
+            versions[i] = ticket.version();
+            updatedAt[i] = toMicros(ticket.updatedAt());
+            showtimes[i] = toMicros(ticket.showtime());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int i = index.remove(id);
+            if (i == LongIntHashMap.MISSING) {
+                return false;
+            }
+            types[i] = REMOVED;
+            removed++;
+            if (removed > 1024 && removed > length / 4) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return length - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // In id order, under the read lock: keep the consumer cheap
+    public void forEach(Consumer<TicketResponse> consumer) {
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < length; i++) {
+                if (types[i] != REMOVED) {
+                    consumer.accept(row(i));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<TicketResponse> toList() {
+        lock.readLock().lock();
+        try {
+            List<TicketResponse> list = new ArrayList<>(length - removed);
+            for (int i = 0; i < length; i++) {
+                if (types[i] != REMOVED) {
+                    list.add(row(i));
+                }
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Heap held by the arrays (allocated capacity, not just the rows in use)
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long perSlot = 6L * Long.BYTES + 1 + 2L * Double.BYTES;
+            return perSlot * ids.length + index.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TicketResponse row(int i) {
+        return new TicketResponse(ids[i], customerIds[i], movieIds[i],
+                TYPES[types[i]], basePrices[i], finalPrices[i],
+                versions[i], fromMicros(updatedAt[i]), fromMicros(showtimes[i]));
+    }
+
+    static long toMicros(Instant instant) {
+        return instant == null ? NO_TIMESTAMP : instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    static Instant fromMicros(long micros) {
+        return micros == NO_TIMESTAMP ? null
+                : Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    // New ids come from a sequence, so they almost always append; anything else shifts the tail once
+    private int insertSlot(long id) {
+        if (length == ids.length) {
+            grow();
+        }
+        int pos = length;
+        if (length > 0 && ids[length - 1] > id) {
+            pos = Arrays.binarySearch(ids, 0, length, id);
+            pos = pos < 0 ? -pos - 1 : pos;
+            int tail = length - pos;
+            System.arraycopy(ids, pos, ids, pos + 1, tail);
+            System.arraycopy(customerIds, pos, customerIds, pos + 1, tail);
+            System.arraycopy(movieIds, pos, movieIds, pos + 1, tail);
+            System.arraycopy(types, pos, types, pos + 1, tail);
+            System.arraycopy(basePrices, pos, basePrices, pos + 1, tail);
+            System.arraycopy(finalPrices, pos, finalPrices, pos + 1, tail);
+            System.arraycopy(versions, pos, versions, pos + 1, tail);
+            System.arraycopy(updatedAt, pos, updatedAt, pos + 1, tail);
+            System.arraycopy(showtimes, pos, showtimes, pos + 1, tail);
+            for (int i = pos + 1; i <= length; i++) {
+                if (types[i] != REMOVED) {
+                    index.put(ids[i], i);
+                }
+            }
+        }
+        ids[pos] = id;
+        index.put(id, pos);
+        length++;
+        return pos;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        customerIds = Arrays.copyOf(customerIds, capacity);
+        movieIds = Arrays.copyOf(movieIds, capacity);
+        types = Arrays.copyOf(types, capacity);
+        basePrices = Arrays.copyOf(basePrices, capacity);
+        finalPrices = Arrays.copyOf(finalPrices, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        showtimes = Arrays.copyOf(showtimes, capacity);
+    }
+
+    private void compact() {
+        int w = 0;
+        for (int r = 0; r < length; r++) {
+            if (types[r] == REMOVED) {
+                continue;
+            }
+            if (w != r) {
+                ids[w] = ids[r];
+                customerIds[w] = customerIds[r];
+                movieIds[w] = movieIds[r];
+                types[w] = types[r];
+                basePrices[w] = basePrices[r];
+                finalPrices[w] = finalPrices[r];
+                versions[w] = versions[r];
+                updatedAt[w] = updatedAt[r];
+                showtimes[w] = showtimes[r];
+                index.put(ids[w], w);
+            }
+            w++;
+        }
+        length = w;
+        removed = 0;
+    }
+}
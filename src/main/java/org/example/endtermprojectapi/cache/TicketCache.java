@@ -1,13 +1,21 @@
 package org.example.endtermprojectapi.cache;
 
+import org.example.endtermprojectapi.dto.CacheStatsResponse;
 import org.example.endtermprojectapi.dto.TicketResponse;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class TicketCache {
 
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    public static final int DEFAULT_CONCURRENCY = 16;
+    public static final int DEFAULT_SNAPSHOT_MAX_ENTRIES = 100_000;
+
     private TicketCache() {}
 
     private static class Holder {
@@ -18,21 +26,202 @@ public final class TicketCache {
         return Holder.INSTANCE;
     }
 
-    private volatile List<TicketResponse> allTicketsCache; // cache for getAll()
-    private final Map<Long, TicketResponse> byIdCache = new ConcurrentHashMap<>();
+    // A private instance, for running more than one application context in the same JVM
+    public static TicketCache newInstance() {
+        return new TicketCache();
+    }
+
+    private volatile Snapshot allTicketsCache; // cache for getAll()
+    private volatile BoundedCache<Long, TicketResponse> byIdCache =
+            new BoundedCache<>(DEFAULT_MAX_ENTRIES, DEFAULT_TTL, DEFAULT_CONCURRENCY);
+
+    // per-customer / per-movie ticket lists, weighted by list size; null when disabled
+    private volatile BoundedCache<Long, List<TicketResponse>> byCustomerCache;
+    private volatile BoundedCache<Long, List<TicketResponse>> byMovieCache;
+
+    // ids deleted recently, so an upsert applied after the delete (e.g. a late remote refresh) cannot bring them back
+    private volatile BoundedCache<Long, Boolean> deletedIds =
+            new BoundedCache<>(DEFAULT_MAX_ENTRIES, DEFAULT_TTL, DEFAULT_CONCURRENCY);
+
+    // ids recently looked up and not found, so repeated misses skip the DB; null when disabled
+    private volatile BoundedCache<Long, Boolean> missingIds;
+
+    // optional count/price totals per movie, customer and type; null when disabled
+    private volatile TicketStatsRollup statsRollup;
+
+    private volatile long ttlNanos = DEFAULT_TTL.toNanos();
+    private volatile int snapshotMaxEntries = DEFAULT_SNAPSHOT_MAX_ENTRIES;
+
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder snapshotMisses = new LongAdder();
+
+    // bumped on every invalidation; loads that started before a bump must not publish their result
+    private final AtomicLong version = new AtomicLong();
+
+    // optional columnar copy of the whole table; null until loaded or after a clear()
+    private volatile ColumnarTicketStore readModel;
+    // writes seen while a read-model load is running (TicketResponse = upsert, Long = remove)
+    private List<Object> readModelBacklog;
+    // the read model as a list, reused by getAll() until the next version; same size limit as the snapshot
+    private volatile AllTickets readModelTickets;
+
+    // Replaces the by-id engine, so anything cached before is dropped
+    public synchronized void configure(int maxEntries, Duration ttl, int concurrency, int snapshotMaxEntries) {
+        this.byIdCache = new BoundedCache<>(maxEntries, ttl, concurrency);
+        this.deletedIds = new BoundedCache<>(maxEntries, ttl, concurrency);
+        this.ttlNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? 0L : ttl.toNanos();
+        this.snapshotMaxEntries = snapshotMaxEntries;
+        this.allTicketsCache = null;
+        version.incrementAndGet();
+    }
+
+    // maxTickets <= 0 turns the per-customer / per-movie caches off
+    public synchronized void configureGroups(long maxTickets, Duration ttl, int concurrency) {
+        if (maxTickets <= 0) {
+            this.byCustomerCache = null;
+            this.byMovieCache = null;
+        } else {
+            // an empty list still costs a slot
+            this.byCustomerCache = new BoundedCache<>(maxTickets, ttl, concurrency, l -> Math.max(1, l.size()));
+            this.byMovieCache = new BoundedCache<>(maxTickets, ttl, concurrency, l -> Math.max(1, l.size()));
+        }
+        version.incrementAndGet();
+    }
+
+    // maxEntries <= 0 turns the negative cache off; keep the TTL short, a miss is only remembered that long
+    public synchronized void configureMissing(int maxEntries, Duration ttl, int concurrency) {
+        this.missingIds = maxEntries <= 0 ? null : new BoundedCache<>(maxEntries, ttl, concurrency);
+    }
+
+    public synchronized void configureRollup(boolean enabled) {
+        this.statsRollup = enabled ? new TicketStatsRollup() : null;
+    }
+
+    public TicketStatsRollup statsRollup() {
+        return statsRollup;
+    }
+
+    public long version() {
+        return version.get();
+    }
 
     public List<TicketResponse> getAllTickets() {
-        return allTicketsCache;
+        AllTickets all = allTickets();
+        return all == null ? null : all.tickets();
+    }
+
+    // The cached list with the version it was published at, for collection ETags
+    public AllTickets allTickets() {
+        Snapshot snapshot = allTicketsCache;
+        if (snapshot == null || snapshot.stale || snapshot.isExpired(ttlNanos)) {
+            snapshotMisses.increment();
+            return null;
+        }
+        snapshotHits.increment();
+        return snapshot.toAllTickets();
+    }
+
+    public List<TicketResponse> getStaleAllTickets() {
+        AllTickets all = staleAllTickets();
+        return all == null ? null : all.tickets();
+    }
+
+    // Last loaded list even if it was invalidated or expired, for stale-while-revalidate readers
+    public AllTickets staleAllTickets() {
+        Snapshot snapshot = allTicketsCache;
+        return snapshot == null ? null : snapshot.toAllTickets();
     }
 
     public void putAllTickets(List<TicketResponse> tickets) {
-        this.allTicketsCache = List.copyOf(tickets);
+        putAllTickets(tickets, version());
     }
 
-    public void invalidateAllTickets() {
+    public boolean putAllTickets(List<TicketResponse> tickets, long loadedAtVersion) {
+        return publishAllTickets(tickets, loadedAtVersion) != null;
+    }
+
+    // Null if a write raced with the load or the list is over the limit
+    public synchronized AllTickets publishAllTickets(List<TicketResponse> tickets, long loadedAtVersion) {
+        if (version.get() != loadedAtVersion) {
+            return null;
+        }
+        // a table larger than the limit is served from the DB instead of pinning it in the heap
+        if (tickets.size() > snapshotMaxEntries) {
+            this.allTicketsCache = null;
+            return null;
+        }
+        // the reloaded list may differ from what earlier collection ETags described
+        Snapshot snapshot = new Snapshot(TicketTree.ofSorted(tickets), System.nanoTime(), false, loadedAtVersion + 1);
+        publish(snapshot);
+        return snapshot.toAllTickets();
+    }
+
+    // Applies a created/updated ticket to the cached list in place (O(log n)) instead of dropping the list.
+    // Still bumps the version so a full load that started before this write is not published over it.
+    // Writes can arrive out of order (local threads, remote refreshes): a copy with the same or a newer
+    // version is kept, and a ticket deleted meanwhile is not re-added.
+    public synchronized void applyUpsert(TicketResponse ticket) {
+        invalidateGroups(ticket.customerId(), ticket.movieId());
+        if (deletedIds.get(ticket.id()) != null) {
+            version.incrementAndGet();
+            return;
+        }
+        byIdCache.put(ticket.id(), ticket, TicketCache::isSameOrNewer);
+        forgetMissing(ticket.id());
+        applyToReadModel(ticket);
+
+        Snapshot snapshot = allTicketsCache;
+        TicketResponse listed = snapshot == null ? null : snapshot.tickets.get(ticket.id());
+        if (snapshot == null || (listed != null && isSameOrNewer(listed, ticket))) {
+            version.incrementAndGet();
+            return;
+        }
+        TicketTree updated = snapshot.tickets.put(ticket);
+        publish(updated.size() > snapshotMaxEntries
+                ? null
+                : new Snapshot(updated, snapshot.loadedAt, snapshot.stale, version.get() + 1));
+    }
+
+    // An update that moved the ticket also has to drop the lists it was moved out of
+    public synchronized void applyUpsert(TicketResponse ticket, Long previousCustomerId, Long previousMovieId) {
+        invalidateGroups(previousCustomerId, previousMovieId);
+        applyUpsert(ticket);
+    }
+
+    public synchronized void applyRemove(TicketResponse removed) {
+        invalidateGroups(removed.customerId(), removed.movieId());
+        applyRemove(removed.id());
+    }
+
+    // For removals where the customer and movie are unknown, the caller also has to drop all groups
+    public synchronized void applyRemove(Long id) {
+        if (id == null) {
+            return;
+        }
+        byIdCache.invalidate(id);
+        deletedIds.put(id, Boolean.TRUE);
+        applyToReadModel(id);
+
+        Snapshot snapshot = allTicketsCache;
+        publish(snapshot == null
+                ? null
+                : new Snapshot(snapshot.tickets.remove(id), snapshot.loadedAt, snapshot.stale, version.get() + 1));
+    }
+
+    public synchronized void invalidateAllTickets() {
+        version.incrementAndGet();
         this.allTicketsCache = null;
     }
 
+    // Keeps the old list around so readers can be served from it until a refresh lands
+    public synchronized void markAllTicketsStale() {
+        Snapshot snapshot = allTicketsCache;
+        if (snapshot != null && !snapshot.stale) {
+            this.allTicketsCache = new Snapshot(snapshot.tickets, snapshot.loadedAt, true, snapshot.version);
+        }
+        version.incrementAndGet();
+    }
+
     public TicketResponse getById(Long id) {
         return byIdCache.get(id);
     }
@@ -40,17 +229,260 @@ public final class TicketCache {
     public void putById(Long id, TicketResponse ticket) {
         if (id != null && ticket != null) {
             byIdCache.put(id, ticket);
+            forgetMissing(id);
+        }
+    }
+
+    public synchronized boolean putById(Long id, TicketResponse ticket, long loadedAtVersion) {
+        if (version.get() != loadedAtVersion) {
+            return false;
         }
+        putById(id, ticket);
+        return true;
     }
 
-    public void invalidateById(Long id) {
+    public synchronized void invalidateById(Long id) {
         if (id != null) {
-            byIdCache.remove(id);
+            version.incrementAndGet();
+            byIdCache.invalidate(id);
+            forgetMissing(id);
+        }
+    }
+
+    public boolean isMissing(Long id) {
+        BoundedCache<Long, Boolean> missing = missingIds;
+        return missing != null && missing.get(id) != null;
+    }
+
+    // Same guard as putById: a miss seen before a write (e.g. the create of this id) must not hide it
+    public synchronized boolean putMissing(Long id, long loadedAtVersion) {
+        BoundedCache<Long, Boolean> missing = missingIds;
+        if (missing == null || id == null || version.get() != loadedAtVersion) {
+            return false;
         }
+        missing.put(id, Boolean.TRUE);
+        return true;
+    }
+
+    public List<TicketResponse> getByCustomer(Long customerId) {
+        BoundedCache<Long, List<TicketResponse>> groups = byCustomerCache;
+        return groups == null ? null : groups.get(customerId);
     }
 
-    public void clear() {
+    public synchronized boolean putByCustomer(Long customerId, List<TicketResponse> tickets, long loadedAtVersion) {
+        return putGroup(byCustomerCache, customerId, tickets, loadedAtVersion);
+    }
+
+    public List<TicketResponse> getByMovie(Long movieId) {
+        BoundedCache<Long, List<TicketResponse>> groups = byMovieCache;
+        return groups == null ? null : groups.get(movieId);
+    }
+
+    public synchronized boolean putByMovie(Long movieId, List<TicketResponse> tickets, long loadedAtVersion) {
+        return putGroup(byMovieCache, movieId, tickets, loadedAtVersion);
+    }
+
+    // Used when the writes behind a change are not known in detail (e.g. another node's update)
+    public synchronized void invalidateGroups() {
+        version.incrementAndGet();
+        clearGroups();
+    }
+
+    public synchronized void clear() {
+        version.incrementAndGet();
         allTicketsCache = null;
+        deletedIds.clear();
+        clearAllButTheList();
+    }
+
+    // For bulk changes whose rows are not known in detail (import, reprice, another node's resync):
+    // drops everything like clear(), but keeps the getAll() list as stale, so with stale-while-revalidate
+    // readers are answered from it while one reload runs instead of all going to the DB at once
+    public synchronized void invalidateAll() {
+        markAllTicketsStale();
+        clearAllButTheList();
+    }
+
+    private void clearAllButTheList() {
         byIdCache.clear();
+        BoundedCache<Long, Boolean> missing = missingIds;
+        if (missing != null) {
+            missing.clear();
+        }
+        clearGroups();
+        readModel = null;
+        readModelBacklog = null;
+        readModelTickets = null;
+    }
+
+    public ColumnarTicketStore readModel() {
+        return readModel;
+    }
+
+    // version must be read before the store: every write reaches the store before it bumps the version,
+    // so a list is never older than the version it is kept under
+    public AllTickets readModelTickets(ColumnarTicketStore store, long version) {
+        AllTickets cached = readModelTickets;
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        AllTickets fresh = new AllTickets(store.toList(), version);
+        if (fresh.tickets().size() <= snapshotMaxEntries) {
+            readModelTickets = fresh;
+        }
+        return fresh;
+    }
+
+    // Starts recording writes so they can be replayed over a store that is being filled from the DB
+    public synchronized void beginReadModelLoad() {
+        readModelBacklog = new ArrayList<>();
+    }
+
+    // Publishes a freshly loaded store after replaying the writes that raced with the load.
+    // Returns false if the cache was cleared meanwhile, since the store may have missed remote writes.
+    public synchronized boolean finishReadModelLoad(ColumnarTicketStore store) {
+        List<Object> backlog = readModelBacklog;
+        readModelBacklog = null;
+        if (backlog == null) {
+            return false;
+        }
+        for (Object op : backlog) {
+            if (op instanceof TicketResponse ticket) {
+                store.upsert(ticket);
+            } else {
+                store.remove((Long) op);
+            }
+        }
+        readModel = store;
+        readModelTickets = null;
+        return true;
+    }
+
+    // The snapshot carries the version it is published at, and the counter only moves once it is visible,
+    // so a reader never pairs the new version with the old list
+    private void publish(Snapshot snapshot) {
+        this.allTicketsCache = snapshot;
+        version.incrementAndGet();
+    }
+
+    private boolean putGroup(BoundedCache<Long, List<TicketResponse>> groups, Long key,
+                             List<TicketResponse> tickets, long loadedAtVersion) {
+        if (groups == null || key == null || version.get() != loadedAtVersion) {
+            return false;
+        }
+        groups.put(key, List.copyOf(tickets));
+        return true;
+    }
+
+    private void invalidateGroups(Long customerId, Long movieId) {
+        BoundedCache<Long, List<TicketResponse>> customers = byCustomerCache;
+        BoundedCache<Long, List<TicketResponse>> movies = byMovieCache;
+        if (customers != null && customerId != null) {
+            customers.invalidate(customerId);
+        }
+        if (movies != null && movieId != null) {
+            movies.invalidate(movieId);
+        }
+    }
+
+    private static boolean isSameOrNewer(TicketResponse current, TicketResponse incoming) {
+        return current.version() >= incoming.version();
+    }
+
+    private void forgetMissing(Long id) {
+        BoundedCache<Long, Boolean> missing = missingIds;
+        if (missing != null) {
+            missing.invalidate(id);
+        }
+    }
+
+    private void clearGroups() {
+        BoundedCache<Long, List<TicketResponse>> customers = byCustomerCache;
+        BoundedCache<Long, List<TicketResponse>> movies = byMovieCache;
+        TicketStatsRollup rollup = statsRollup;
+        if (rollup != null) {
+            rollup.invalidate();
+        }
+        if (customers != null) {
+            customers.clear();
+        }
+        if (movies != null) {
+            movies.clear();
+        }
+    }
+
+    private void applyToReadModel(Object op) {
+        ColumnarTicketStore store = readModel;
+        if (store != null) {
+            if (op instanceof TicketResponse ticket) {
+                store.upsert(ticket);
+            } else {
+                store.remove((Long) op);
+            }
+        }
+        if (readModelBacklog != null) {
+            readModelBacklog.add(op);
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        BoundedCache<Long, TicketResponse> engine = byIdCache;
+        Snapshot snapshot = allTicketsCache;
+        return new CacheStatsResponse(
+                engine.hitCount(),
+                engine.missCount(),
+                engine.evictionCount(),
+                engine.expirationCount(),
+                engine.size(),
+                engine.maxWeight(),
+                snapshotHits.sum(),
+                snapshotMisses.sum(),
+                snapshot == null ? 0 : snapshot.tickets.size()
+        );
+    }
+
+    // Single figures for metrics: the counters are lock-free, only the size walks (and locks) the segments.
+    // Meters read these rather than stats(), which would take every segment lock once per meter.
+    public long byIdHits() { return byIdCache.hitCount(); }
+    public long byIdMisses() { return byIdCache.missCount(); }
+    public long byIdEvictions() { return byIdCache.evictionCount(); }
+    public long byIdSize() { return byIdCache.size(); }
+    public long allTicketsHits() { return snapshotHits.sum(); }
+    public long allTicketsMisses() { return snapshotMisses.sum(); }
+
+    public long allTicketsSize() {
+        Snapshot snapshot = allTicketsCache;
+        return snapshot == null ? 0 : snapshot.tickets.size();
+    }
+
+    public double byIdHitRatio() {
+        BoundedCache<Long, TicketResponse> engine = byIdCache;
+        long hits = engine.hitCount();
+        long total = hits + engine.missCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public record AllTickets(List<TicketResponse> tickets, long version) {}
+
+    private static final class Snapshot {
+        private final TicketTree tickets;
+        private final long loadedAt;
+        private final boolean stale;
+        private final long version;
+
+        private Snapshot(TicketTree tickets, long loadedAt, boolean stale, long version) {
+            this.tickets = tickets;
+            this.loadedAt = loadedAt;
+            this.stale = stale;
+            this.version = version;
+        }
+
+        private AllTickets toAllTickets() {
+            return new AllTickets(tickets.asList(), version);
+        }
+
+        private boolean isExpired(long ttlNanos) {
+            return ttlNanos > 0 && System.nanoTime() - loadedAt >= ttlNanos;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary dump of the ticket table, written and read through memory-mapped windows.
+ * Layout: header (magic, format, row count, type dictionary) followed by fixed 65-byte rows
+ * (id, customer, movie, type code, base price, final price, version, updated_at and showtime in micros).
+ * Files of an older format are rejected like corrupt ones, so the warm-up falls back to a full load.
+ * Rows are in id order, the same order the cache keeps them in.
+ */
+public final class TicketSnapshotFile {
+
+    private static final int MAGIC = 0x544B534E; // "TKSN"
+    private static final int FORMAT = 2;
+    private static final int ROW_BYTES = 3 * Long.BYTES + 1 + 2 * Double.BYTES + 3 * Long.BYTES;
+    // mapped in windows so the file can outgrow the 2 GB limit of a single buffer
+    private static final int ROWS_PER_WINDOW = (64 << 20) / ROW_BYTES;
+
+    private TicketSnapshotFile() {}
+
+    // Writes to a temp file and renames it, so a crash mid-write never leaves a torn snapshot behind
+    public static void write(Path path, List<TicketResponse> tickets) throws IOException {
+        List<TicketType> types = new ArrayList<>();
+        for (TicketResponse ticket : tickets) {
+            if (!types.contains(ticket.type())) {
+                if (types.size() == Byte.MAX_VALUE) {
+                    throw new IOException("too many distinct ticket types for the snapshot format");
+                }
+                types.add(ticket.type());
+            }
+        }
+        byte[] header = header(tickets.size(), types);
+
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(header));
+                long position = header.length;
+                for (int from = 0; from < tickets.size(); from += ROWS_PER_WINDOW) {
+                    int to = Math.min(from + ROWS_PER_WINDOW, tickets.size());
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE,
+                            position, (long) (to - from) * ROW_BYTES);
+                    for (int i = from; i < to; i++) {
+                        TicketResponse t = tickets.get(i);
+                        window.putLong(t.id())
+                                .putLong(t.customerId())
+                                .putLong(t.movieId())
+                                .put((byte) types.indexOf(t.type()))
+                                .putDouble(t.basePrice())
+                                .putDouble(t.finalPrice())
+                                .putLong(t.version())
+                                .putLong(ColumnarTicketStore.toMicros(t.updatedAt()))
+                                .putLong(ColumnarTicketStore.toMicros(t.showtime()));
+                    }
+                    window.force();
+                    position += (long) (to - from) * ROW_BYTES;
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static List<TicketResponse> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 64 * 1024));
+            if (head.remaining() < 20 || head.getInt() != MAGIC || head.getInt() != FORMAT) {
+                throw new IOException("not a ticket snapshot: " + path);
+            }
+            long count = head.getLong();
+            int typeCount = head.getInt();
+            TicketType[] types = new TicketType[typeCount];
+            for (int i = 0; i < typeCount; i++) {
+                byte[] name = new byte[head.getShort()];
+                head.get(name);
+                types[i] = TicketType.of(new String(name, StandardCharsets.UTF_8));
+            }
+
+            long position = head.position();
+            if (count > Integer.MAX_VALUE || position + count * ROW_BYTES != size) {
+                throw new IOException("truncated ticket snapshot: " + path);
+            }
+
+            List<TicketResponse> tickets = new ArrayList<>((int) count);
+            for (long from = 0; from < count; from += ROWS_PER_WINDOW) {
+                int rows = (int) Math.min(ROWS_PER_WINDOW, count - from);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        position, (long) rows * ROW_BYTES);
+                for (int i = 0; i < rows; i++) {
+                    long id = window.getLong();
+                    long customerId = window.getLong();
+                    long movieId = window.getLong();
+                    TicketType type = types[window.get()];
+                    double basePrice = window.getDouble();
+                    double finalPrice = window.getDouble();
+                    long version = window.getLong();
+                    long updatedAt = window.getLong();
+                    long showtime = window.getLong();
+                    tickets.add(new TicketResponse(id, customerId, movieId, type, basePrice, finalPrice,
+                            version, ColumnarTicketStore.fromMicros(updatedAt), ColumnarTicketStore.fromMicros(showtime)));
+                }
+                position += (long) rows * ROW_BYTES;
+            }
+            return tickets;
+        }
+    }
+
+    private static byte[] header(long count, List<TicketType> types) {
+        List<byte[]> names = new ArrayList<>(types.size());
+        int length = 4 + 4 + 8 + 4;
+        for (TicketType type : types) {
+            byte[] name = type.name().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            length += 2 + name.length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(length)
+                .putInt(MAGIC)
+                .putInt(FORMAT)
+                .putLong(count)
+                .putInt(types.size());
+        for (byte[] name : names) {
+            header.putShort((short) name.length).put(name);
+        }
+        return header.array();
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.dto.TicketStatsResponse;
+import org.example.endtermprojectapi.model.TicketGroupBy;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-movie, per-customer and per-type count and price totals, kept up to date on every local write.
+ * Loaded once from SQL; writes whose previous row is not known (other nodes) make it unready again.
+ * Local writes are bracketed by beginWrite/endWrite around both the DB statement and the add/replace/remove,
+ * since a load that ran in between would already count the committed row and the add would count it again.
+ */
+public final class TicketStatsRollup {
+
+    private final Map<TicketGroupBy, TreeMap<Object, Totals>> groups = new EnumMap<>(TicketGroupBy.class);
+
+    private boolean ready;
+
+    // bumped by every write, so a SQL load that raced with one is not published
+    private long generation;
+    private int writesInFlight;
+
+    public TicketStatsRollup() {
+        for (TicketGroupBy groupBy : TicketGroupBy.values()) {
+            groups.put(groupBy, new TreeMap<>());
+        }
+    }
+
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized boolean load(Map<TicketGroupBy, List<TicketStatsResponse>> totals, long loadedAtGeneration) {
+        if (generation != loadedAtGeneration || writesInFlight > 0) {
+            return false;
+        }
+        for (TicketGroupBy groupBy : TicketGroupBy.values()) {
+            TreeMap<Object, Totals> group = groups.get(groupBy);
+            group.clear();
+            for (TicketStatsResponse row : totals.getOrDefault(groupBy, List.of())) {
+                Object key = groupBy == TicketGroupBy.TYPE ? row.getKey() : Long.valueOf(row.getKey());
+                group.put(key, new Totals(row.getCount(), row.getTotalBasePrice(), row.getTotalFinalPrice()));
+            }
+        }
+        ready = true;
+        return true;
+    }
+
+    public synchronized void beginWrite() {
+        generation++;
+        writesInFlight++;
+    }
+
+    public synchronized void endWrite() {
+        generation++;
+        writesInFlight--;
+    }
+
+    public synchronized void add(TicketResponse ticket) {
+        generation++;
+        if (ready) {
+            apply(ticket, 1);
+        }
+    }
+
+    public synchronized void replace(TicketResponse previous, TicketResponse current) {
+        generation++;
+        if (ready) {
+            apply(previous, -1);
+            apply(current, 1);
+        }
+    }
+
+    public synchronized void remove(TicketResponse ticket) {
+        generation++;
+        if (ready) {
+            apply(ticket, -1);
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        ready = false;
+    }
+
+    // Null when not loaded, so callers fall back to SQL
+    public synchronized List<TicketStatsResponse> snapshot(TicketGroupBy groupBy) {
+        if (!ready) {
+            return null;
+        }
+        List<TicketStatsResponse> rows = new ArrayList<>();
+        groups.get(groupBy).forEach((key, totals) -> rows.add(
+                new TicketStatsResponse(String.valueOf(key), totals.count, totals.base, totals.fin)));
+        return rows;
+    }
+
+    private void apply(TicketResponse ticket, int sign) {
+        apply(groups.get(TicketGroupBy.MOVIE), ticket.movieId(), ticket, sign);
+        apply(groups.get(TicketGroupBy.CUSTOMER), ticket.customerId(), ticket, sign);
+        apply(groups.get(TicketGroupBy.TYPE), ticket.type().name(), ticket, sign);
+    }
+
+    private static void apply(TreeMap<Object, Totals> group, Object key, TicketResponse ticket, int sign) {
+        Totals totals = group.computeIfAbsent(key, k -> new Totals(0, 0.0, 0.0));
+        totals.count += sign;
+        totals.base += sign * ticket.basePrice();
+        totals.fin += sign * ticket.finalPrice();
+        if (totals.count <= 0) {
+            group.remove(key);
+        }
+    }
+
+    private static final class Totals {
+        private long count;
+        private double base;
+        private double fin;
+
+        private Totals(long count, double base, double fin) {
+            this.count = count;
+            this.base = base;
+            this.fin = fin;
+        }
+    }
+}
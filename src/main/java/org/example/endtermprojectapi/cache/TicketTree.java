@@ -0,0 +1,217 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Persistent AVL tree of tickets ordered by id.
+ * put/remove copy only the O(log n) nodes on the path they touch, so an old root
+ * stays a valid, unchanging snapshot for readers that are still iterating it.
+ */
+public final class TicketTree {
+
+    private static final TicketTree EMPTY = new TicketTree(null);
+
+    private final Node root;
+    private final List<TicketResponse> view = new View();
+
+    private TicketTree(Node root) {
+        this.root = root;
+    }
+
+    public static TicketTree empty() {
+        return EMPTY;
+    }
+
+    // Expects tickets already ordered by id (ORDER BY id), builds a perfectly balanced tree in O(n)
+    public static TicketTree ofSorted(List<TicketResponse> tickets) {
+        TicketResponse[] values = tickets.toArray(new TicketResponse[0]);
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1].id() >= values[i].id()) {
+                throw new IllegalArgumentException("tickets must be strictly ordered by id");
+            }
+        }
+        return new TicketTree(build(values, 0, values.length - 1));
+    }
+
+    public TicketTree put(TicketResponse ticket) {
+        return new TicketTree(put(root, ticket.id(), ticket));
+    }
+
+    public TicketTree remove(long id) {
+        Node updated = remove(root, id);
+        return updated == root ? this : new TicketTree(updated);
+    }
+
+    public TicketResponse get(long id) {
+        Node n = root;
+        while (n != null) {
+            if (id < n.key) n = n.left;
+            else if (id > n.key) n = n.right;
+            else return n.value;
+        }
+        return null;
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    // Read-only list view in id order; get(i) is O(log n), iteration is O(1) per element
+    public List<TicketResponse> asList() {
+        return view;
+    }
+
+    private static Node build(TicketResponse[] values, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        return node(values[mid], build(values, lo, mid - 1), build(values, mid + 1, hi));
+    }
+
+    private static Node put(Node n, long key, TicketResponse value) {
+        if (n == null) return node(value, null, null);
+        if (key < n.key) return balance(n.value, put(n.left, key, value), n.right);
+        if (key > n.key) return balance(n.value, n.left, put(n.right, key, value));
+        return node(value, n.left, n.right);
+    }
+
+    private static Node remove(Node n, long key) {
+        if (n == null) return null;
+        if (key < n.key) {
+            Node left = remove(n.left, key);
+            return left == n.left ? n : balance(n.value, left, n.right);
+        }
+        if (key > n.key) {
+            Node right = remove(n.right, key);
+            return right == n.right ? n : balance(n.value, n.left, right);
+        }
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+
+        Node min = n.right;
+        while (min.left != null) min = min.left;
+        return balance(min.value, n.left, removeMin(n.right));
+    }
+
+    private static Node removeMin(Node n) {
+        if (n.left == null) return n.right;
+        return balance(n.value, removeMin(n.left), n.right);
+    }
+
+    private static Node balance(TicketResponse value, Node left, Node right) {
+        int hl = heightOf(left);
+        int hr = heightOf(right);
+
+        if (hl > hr + 1) {
+            if (heightOf(left.left) >= heightOf(left.right)) {
+                return node(left.value, left.left, node(value, left.right, right));
+            }
+            Node lr = left.right;
+            return node(lr.value, node(left.value, left.left, lr.left), node(value, lr.right, right));
+        }
+        if (hr > hl + 1) {
+            if (heightOf(right.right) >= heightOf(right.left)) {
+                return node(right.value, node(value, left, right.left), right.right);
+            }
+            Node rl = right.left;
+            return node(rl.value, node(value, left, rl.left), node(right.value, rl.right, right.right));
+        }
+        return node(value, left, right);
+    }
+
+    private static Node node(TicketResponse value, Node left, Node right) {
+        return new Node(value, left, right);
+    }
+
+    private static int heightOf(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static int sizeOf(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static final class Node {
+        private final long key;
+        private final TicketResponse value;
+        private final Node left;
+        private final Node right;
+        private final int height;
+        private final int size;
+
+        private Node(TicketResponse value, Node left, Node right) {
+            this.key = value.id();
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(heightOf(left), heightOf(right)) + 1;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+    }
+
+    private final class View extends AbstractList<TicketResponse> {
+
+        @Override
+        public TicketResponse get(int index) {
+            if (index < 0 || index >= sizeOf(root)) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + sizeOf(root));
+            }
+            Node n = root;
+            while (true) {
+                int leftSize = sizeOf(n.left);
+                if (index < leftSize) {
+                    n = n.left;
+                } else if (index > leftSize) {
+                    index -= leftSize + 1;
+                    n = n.right;
+                } else {
+                    return n.value;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return sizeOf(root);
+        }
+
+        @Override
+        public Iterator<TicketResponse> iterator() {
+            return new InOrder(root);
+        }
+    }
+
+    private static final class InOrder implements Iterator<TicketResponse> {
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        private InOrder(Node root) {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public TicketResponse next() {
+            if (stack.isEmpty()) throw new NoSuchElementException();
+            Node n = stack.pop();
+            pushLeft(n.right);
+            return n.value;
+        }
+
+        private void pushLeft(Node n) {
+            while (n != null) {
+                stack.push(n);
+                n = n.left;
+            }
+        }
+    }
+}
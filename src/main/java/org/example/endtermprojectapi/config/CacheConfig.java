@@ -0,0 +1,32 @@
+package org.example.endtermprojectapi.config;
+
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public TicketCache ticketCache(
+            @Value("${ticket.cache.max-entries:10000}") int maxEntries,
+            @Value("${ticket.cache.ttl:10m}") Duration ttl,
+            @Value("${ticket.cache.concurrency:16}") int concurrency,
+            @Value("${ticket.cache.all-tickets.max-entries:100000}") int snapshotMaxEntries,
+            @Value("${ticket.cache.groups.max-tickets:50000}") long groupMaxTickets,
+            @Value("${ticket.cache.missing.max-entries:10000}") int missingMaxEntries,
+            @Value("${ticket.cache.missing.ttl:5s}") Duration missingTtl,
+            @Value("${ticket.stats.rollup.enabled:false}") boolean statsRollup,
+            @Value("${ticket.cache.shared-instance:true}") boolean sharedInstance
+    ) {
+        TicketCache cache = sharedInstance ? TicketCache.getInstance() : TicketCache.newInstance();
+        cache.configure(maxEntries, ttl, concurrency, snapshotMaxEntries);
+        cache.configureGroups(groupMaxTickets, ttl, concurrency);
+        cache.configureMissing(missingMaxEntries, missingTtl, concurrency);
+        cache.configureRollup(statsRollup);
+        return cache;
+    }
+}
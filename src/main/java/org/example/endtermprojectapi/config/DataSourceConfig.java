@@ -0,0 +1,18 @@
+package org.example.endtermprojectapi.config;
+
+import org.example.endtermprojectapi.patterns.singleton.DatabaseConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public DatabaseConfig databaseConfig(DataSource dataSource) {
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        config.bind(dataSource);
+        return config;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.endtermprojectapi.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Read from TicketCache at scrape time, so the cache itself carries no Micrometer dependency.
+    // Each meter reads its own figure rather than building a whole stats() response.
+    @Bean
+    public MeterBinder ticketCacheMetrics(TicketCache cache) {
+        return (MeterRegistry registry) -> {
+            FunctionCounter.builder("ticket.cache.hits", cache, TicketCache::byIdHits)
+                    .tag("cache", "byId").register(registry);
+            FunctionCounter.builder("ticket.cache.misses", cache, TicketCache::byIdMisses)
+                    .tag("cache", "byId").register(registry);
+            FunctionCounter.builder("ticket.cache.evictions", cache, TicketCache::byIdEvictions)
+                    .tag("cache", "byId").register(registry);
+            FunctionCounter.builder("ticket.cache.hits", cache, TicketCache::allTicketsHits)
+                    .tag("cache", "allTickets").register(registry);
+            FunctionCounter.builder("ticket.cache.misses", cache, TicketCache::allTicketsMisses)
+                    .tag("cache", "allTickets").register(registry);
+
+            Gauge.builder("ticket.cache.size", cache, TicketCache::byIdSize)
+                    .tag("cache", "byId").register(registry);
+            Gauge.builder("ticket.cache.size", cache, TicketCache::allTicketsSize)
+                    .tag("cache", "allTickets").register(registry);
+            Gauge.builder("ticket.cache.hit.ratio", cache, TicketCache::byIdHitRatio)
+                    .tag("cache", "byId").register(registry);
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.endtermprojectapi.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides, per thread, whether the next JDBC connection may come from a read replica.
+ * A query only goes to a replica when its caller marked it as a read and nothing pinned the thread
+ * to the primary; a client's own writes pin its requests through {@link ReadYourWritesFilter}.
+ * Reads that refill a shared cache additionally wait out the read-your-writes window after any write
+ * this instance made or heard of, since a lagging replica would otherwise be cached for everyone.
+ * Without replicas configured the flags are simply never consulted.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> READ = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> PRIMARY = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> REFILL = ThreadLocal.withInitial(() -> false);
+
+    private static volatile long lastWriteNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    private ReplicaRouting() {}
+
+    // A read that tolerates replication lag
+    public static <T> T replica(Supplier<T> query) {
+        if (READ.get()) {
+            return query.get();
+        }
+        READ.set(true);
+        try {
+            return query.get();
+        } finally {
+            READ.remove();
+        }
+    }
+
+    public static void replica(Runnable query) {
+        replica(() -> {
+            query.run();
+            return null;
+        });
+    }
+
+    // A read whose result is cached for every client, e.g. a cache miss or the warm-up
+    public static <T> T refill(Supplier<T> query) {
+        if (REFILL.get()) {
+            return replica(query);
+        }
+        REFILL.set(true);
+        try {
+            return replica(query);
+        } finally {
+            REFILL.remove();
+        }
+    }
+
+    public static void refill(Runnable query) {
+        refill(() -> {
+            query.run();
+            return null;
+        });
+    }
+
+    // Forces the primary even for reads marked above, e.g. re-reading a row another node just changed
+    public static <T> T primary(Supplier<T> query) {
+        boolean outer = pinPrimary();
+        try {
+            return query.get();
+        } finally {
+            unpinPrimary(outer);
+        }
+    }
+
+    // Keeps cache refills on the primary for the read-your-writes window; other clients' reads are not affected
+    public static void wrote() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    static boolean replicaAllowed(long readYourWritesNanos) {
+        if (!READ.get() || PRIMARY.get()) {
+            return false;
+        }
+        return !REFILL.get() || System.nanoTime() - lastWriteNanos >= readYourWritesNanos;
+    }
+
+    static boolean pinnedToPrimary() {
+        return PRIMARY.get();
+    }
+
+    static boolean pinPrimary() {
+        boolean outer = PRIMARY.get();
+        PRIMARY.set(true);
+        return outer;
+    }
+
+    static void unpinPrimary(boolean outer) {
+        if (!outer) {
+            PRIMARY.remove();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.endtermprojectapi.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Opt-in with ticket.datasource.replicas.enabled=true; the primary stays spring.datasource.*
+@Configuration
+@ConditionalOnProperty(name = "ticket.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(Environment env) {
+        return new ReplicaRoutingPostProcessor(env);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(Environment env) {
+        return new ReadYourWritesFilter(readYourWrites(env));
+    }
+
+    private static Duration readYourWrites(Environment env) {
+        return env.getProperty("ticket.datasource.replicas.read-your-writes", Duration.class, Duration.ofSeconds(5));
+    }
+
+    // Ordered, so it wraps the pool before the (unordered) connection permit limiter wraps the result
+    public static final class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment env;
+
+        private ReplicaRoutingPostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource ds)
+                    || bean instanceof ReplicaRoutingDataSource) {
+                return bean;
+            }
+            List<HikariConfig> replicas = new ArrayList<>();
+            String[] urls = env.getProperty("ticket.datasource.replicas.urls", String[].class, new String[0]);
+            for (int i = 0; i < urls.length; i++) {
+                if (!urls[i].isBlank()) {
+                    replicas.add(replicaConfig(urls[i].trim(), i));
+                }
+            }
+            if (replicas.isEmpty()) {
+                return bean;
+            }
+            return new ReplicaRoutingDataSource(ds, replicas,
+                    ReplicaRoutingDataSource.Selection.of(
+                            env.getProperty("ticket.datasource.replicas.selection", "round-robin")),
+                    readYourWrites(env),
+                    env.getProperty("ticket.datasource.replicas.health-interval", Duration.class,
+                            Duration.ofSeconds(2)));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        private HikariConfig replicaConfig(String url, int index) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("ticket-replica-" + index);
+            config.setJdbcUrl(url);
+            config.setUsername(env.getProperty("ticket.datasource.replicas.username",
+                    env.getProperty("spring.datasource.username")));
+            config.setPassword(env.getProperty("ticket.datasource.replicas.password",
+                    env.getProperty("spring.datasource.password")));
+            config.setMaximumPoolSize(env.getProperty("ticket.datasource.replicas.maximum-pool-size", Integer.class,
+                    env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10)));
+            config.setMinimumIdle(env.getProperty("spring.datasource.hikari.minimum-idle", Integer.class, 1));
+            config.setConnectionTimeout(env.getProperty("ticket.datasource.replicas.connection-timeout",
+                    Duration.class, Duration.ofSeconds(1)).toMillis());
+            config.setReadOnly(true);
+            return config;
+        }
+    }
+}
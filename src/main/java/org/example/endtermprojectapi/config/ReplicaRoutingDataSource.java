@@ -0,0 +1,173 @@
+package org.example.endtermprojectapi.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends reads marked through {@link ReplicaRouting} to one of the healthy replicas and everything else
+ * to the primary it wraps. Replicas are pinged in the background; one that fails a ping or refuses a
+ * connection is skipped until a later ping succeeds, and with none left reads fall back to the primary.
+ * unwrap/isWrapperFor still reach the primary pool, so pool stats keep describing the primary.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // weight of the newest ping in the latency average
+    private static final double LATENCY_ALPHA = 0.3;
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LATENCY;
+
+        public static Selection of(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final long readYourWritesNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService health;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariConfig> replicaConfigs, Selection selection,
+                                    Duration readYourWrites, Duration healthInterval) {
+        super(primary);
+        this.selection = selection;
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        List<Replica> pools = new ArrayList<>(replicaConfigs.size());
+        for (HikariConfig config : replicaConfigs) {
+            // a replica that is down at startup must not keep the application from starting
+            config.setInitializationFailTimeout(-1);
+            pools.add(new Replica(new HikariDataSource(config)));
+        }
+        this.replicas = List.copyOf(pools);
+        this.health = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        // replicas count as down until their first ping answers
+        health.scheduleWithFixedDelay(this::checkHealth, 0, healthInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica != null) {
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException ex) {
+                replica.down(ex);
+            }
+        }
+        return super.getConnection();
+    }
+
+    public List<HikariDataSource> replicaPools() {
+        return replicas.stream().map(r -> r.pool).toList();
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        health.shutdownNow();
+        replicas.forEach(r -> r.pool.close());
+        if (getTargetDataSource() instanceof AutoCloseable primary) {
+            primary.close();
+        }
+    }
+
+    // null means the primary
+    private Replica route() {
+        if (!ReplicaRouting.replicaAllowed(readYourWritesNanos)) {
+            return null;
+        }
+        return selection == Selection.LEAST_LATENCY ? fastest() : roundRobin();
+    }
+
+    private Replica roundRobin() {
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((start + i) % n);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica fastest() {
+        Replica best = null;
+        for (Replica replica : replicas) {
+            if (replica.healthy && (best == null || replica.latencyNanos < best.latencyNanos)) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            long start = System.nanoTime();
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+                replica.up(System.nanoTime() - start);
+            } catch (SQLException | RuntimeException ex) {
+                replica.down(ex);
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile long latencyNanos = Long.MAX_VALUE;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private void up(long pingNanos) {
+            long previous = latencyNanos;
+            latencyNanos = previous == Long.MAX_VALUE
+                    ? pingNanos
+                    : (long) (LATENCY_ALPHA * pingNanos + (1 - LATENCY_ALPHA) * previous);
+            if (!healthy) {
+                healthy = true;
+                log.info("Read replica {} is up", pool.getJdbcUrl());
+            }
+        }
+
+        private void down(Exception cause) {
+            if (healthy) {
+                log.warn("Read replica {} is down, reads fall back to the primary: {}",
+                        pool.getJdbcUrl(), cause.getMessage());
+            }
+            healthy = false;
+            latencyNanos = Long.MAX_VALUE;
+        }
+    }
+}
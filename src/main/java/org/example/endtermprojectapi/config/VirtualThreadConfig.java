@@ -0,0 +1,35 @@
+package org.example.endtermprojectapi.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Opt-in with ticket.jdbc.permits.enabled=true, normally together with spring.threads.virtual.enabled=true
+@Configuration
+@ConditionalOnProperty(name = "ticket.jdbc.permits.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPermitPostProcessor(Environment env) {
+        int maxPermits = env.getProperty("ticket.jdbc.permits.max", Integer.class,
+                env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = env.getProperty("ticket.jdbc.permits.acquire-timeout", Duration.class,
+                Duration.ofSeconds(5));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource ds
+                        && !(bean instanceof ConnectionPermitDataSource)) {
+                    return new ConnectionPermitDataSource(ds, maxPermits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
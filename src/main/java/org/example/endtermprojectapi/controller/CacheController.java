@@ -1,5 +1,6 @@
 package org.example.endtermprojectapi.controller;
 
+import org.example.endtermprojectapi.dto.CacheStatsResponse;
 import org.example.endtermprojectapi.service.TicketService;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +15,11 @@ public class CacheController {
         this.ticketService = ticketService;
     }
 
+    @GetMapping("/stats")
+    public CacheStatsResponse stats() {
+        return ticketService.cacheStats();
+    }
+
     // Manual cache clear
     @DeleteMapping("/tickets")
     @ResponseStatus(HttpStatus.NO_CONTENT)
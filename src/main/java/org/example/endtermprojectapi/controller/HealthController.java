@@ -1,13 +1,26 @@
 package org.example.endtermprojectapi.controller;
 
+import org.example.endtermprojectapi.service.HealthService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HealthController {
 
+    private final HealthService healthService;
+
+    public HealthController(HealthService healthService) {
+        this.healthService = healthService;
+    }
+
+    // Readiness: only OK when the database answers
     @GetMapping("/health")
-    public String health() {
-        return "OK";
+    public ResponseEntity<String> health() {
+        if (healthService.isDatabaseUp()) {
+            return ResponseEntity.ok("OK");
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("DOWN");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package org.example.endtermprojectapi.controller;
+
+import org.example.endtermprojectapi.dto.PoolStatsResponse;
+import org.example.endtermprojectapi.service.PoolService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/pool")
+public class PoolController {
+
+    private final PoolService poolService;
+
+    public PoolController(PoolService poolService) {
+        this.poolService = poolService;
+    }
+
+    @GetMapping("/stats")
+    public PoolStatsResponse stats() {
+        return poolService.stats();
+    }
+}
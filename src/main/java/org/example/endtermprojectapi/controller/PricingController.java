@@ -0,0 +1,34 @@
+package org.example.endtermprojectapi.controller;
+
+import org.example.endtermprojectapi.dto.PricingStatusResponse;
+import org.example.endtermprojectapi.dto.RepriceResponse;
+import org.example.endtermprojectapi.service.PricingService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/pricing")
+public class PricingController {
+
+    private final PricingService pricingService;
+
+    public PricingController(PricingService pricingService) {
+        this.pricingService = pricingService;
+    }
+
+    @GetMapping
+    public PricingStatusResponse status() {
+        return pricingService.status();
+    }
+
+    // Re-reads pricing_rules / customer_tiers on this instance; existing tickets keep their price
+    @PostMapping("/reload")
+    public PricingStatusResponse reload() {
+        return pricingService.reload();
+    }
+
+    // Reloads, then recomputes final_price of every stored ticket in the database
+    @PostMapping("/reprice")
+    public RepriceResponse reprice() {
+        return pricingService.reprice();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.endtermprojectapi.controller;
+
+import org.example.endtermprojectapi.dto.HoldRequest;
+import org.example.endtermprojectapi.dto.HoldResponse;
+import org.example.endtermprojectapi.dto.ShowingRequest;
+import org.example.endtermprojectapi.dto.ShowingResponse;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.service.BookingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/showings")
+public class ShowingController {
+
+    private final BookingService bookingService;
+
+    public ShowingController(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    @PutMapping("/{movieId}")
+    public ShowingResponse put(@PathVariable Long movieId, @RequestBody ShowingRequest request) {
+        return bookingService.putShowing(movieId, request);
+    }
+
+    @GetMapping("/{movieId}")
+    public ShowingResponse get(@PathVariable Long movieId) {
+        return bookingService.getShowing(movieId);
+    }
+
+    // 409 when the seats (or enough seats) are not free
+    @PostMapping("/{movieId}/holds")
+    @ResponseStatus(HttpStatus.CREATED)
+    public HoldResponse hold(@PathVariable Long movieId, @RequestBody HoldRequest request) {
+        return bookingService.hold(movieId, request);
+    }
+
+    // 410 once the hold has run out
+    @PostMapping("/{movieId}/holds/{holdId}/confirm")
+    public HoldResponse confirm(@PathVariable Long movieId,
+                                @PathVariable String holdId,
+                                @RequestBody TicketRequest request) {
+        return bookingService.confirm(movieId, holdId, request);
+    }
+
+    @DeleteMapping("/{movieId}/holds/{holdId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void release(@PathVariable Long movieId, @PathVariable String holdId) {
+        bookingService.release(movieId, holdId);
+    }
+}
@@ -1,42 +1,165 @@
 package org.example.endtermprojectapi.controller;
 
+import org.example.endtermprojectapi.dto.BatchCreateResponse;
+import org.example.endtermprojectapi.dto.ImportResponse;
 import org.example.endtermprojectapi.dto.TicketRequest;
 import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.dto.TicketStatsResponse;
+import org.example.endtermprojectapi.exception.InvalidInputException;
+import org.example.endtermprojectapi.exception.PreconditionFailedException;
+import org.example.endtermprojectapi.model.TicketExportFormat;
+import org.example.endtermprojectapi.service.TicketImportService;
 import org.example.endtermprojectapi.service.TicketService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
     private final TicketService service;
+    private final TicketImportService importService;
+    private final JsonMapper jsonMapper;
 
-    public TicketController(TicketService service) {
+    public TicketController(TicketService service, TicketImportService importService, JsonMapper jsonMapper) {
         this.service = service;
+        this.importService = importService;
+        this.jsonMapper = jsonMapper;
     }
 
     @GetMapping
-    public List<TicketResponse> getAll() {
-        return service.getAll();
+    public ResponseEntity<List<TicketResponse>> getAll(@RequestParam(required = false) Long afterId,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) Long customerId,
+                                                       @RequestParam(required = false) Long movieId,
+                                                       WebRequest webRequest) {
+        if (customerId != null || movieId != null) {
+            if (afterId != null || limit != null) {
+                throw new InvalidInputException("afterId/limit cannot be combined with customerId/movieId");
+            }
+            if (customerId == null) {
+                return ResponseEntity.ok(service.getByMovie(movieId));
+            }
+            List<TicketResponse> tickets = service.getByCustomer(customerId);
+            return ResponseEntity.ok(movieId == null
+                    ? tickets
+                    : tickets.stream().filter(t -> t.movieId() == movieId).toList());
+        }
+        if (afterId != null || limit != null) {
+            return ResponseEntity.ok(service.getPage(afterId, limit));
+        }
+
+        // the tag comes with the list it describes; a 304 still skips the serialization
+        TicketService.TaggedTickets all = service.getAllTagged();
+        if (webRequest.checkNotModified(all.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(all.etag()).body(all.tickets());
+    }
+
+    // Writes the JSON array row by row while the DB cursor is open
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                service.streamAll(generator::writePOJO);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Bulk extract: Postgres COPY output is piped to the response as it arrives
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format,
+                                                        @RequestParam(required = false) Long fromId,
+                                                        @RequestParam(required = false) Long toId,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        // validated up front, so bad input is still a 400 and not a broken stream
+        TicketExportFormat exportFormat = service.exportFormat(format);
+        service.checkExportRange(fromId, toId);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    service.export(exportFormat, fromId, toId, compressed);
+                }
+            } else {
+                service.export(exportFormat, fromId, toId, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tickets." + exportFormat.extension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/stats")
+    public List<TicketStatsResponse> stats(@RequestParam String groupBy) {
+        return service.getStats(groupBy);
     }
 
     @GetMapping("/{id}")
-    public TicketResponse getById(@PathVariable Long id) {
-        return service.getById(id);
+    public ResponseEntity<TicketResponse> getById(@PathVariable Long id, WebRequest webRequest) {
+        TicketResponse ticket = service.getById(id);
+        String etag = TicketService.etag(ticket);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ticket);
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public TicketResponse create(@RequestBody TicketRequest request) {
-        return service.create(request);
+    public ResponseEntity<TicketResponse> create(@RequestBody TicketRequest request) {
+        TicketResponse ticket = service.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(TicketService.etag(ticket)).body(ticket);
+    }
+
+    @PostMapping("/batch")
+    public BatchCreateResponse createBatch(@RequestBody List<TicketRequest> requests) {
+        return service.createBatch(requests);
     }
 
+    // Bulk load: the raw body is parsed as it is read and COPY'd into Postgres, never buffered
+    @PostMapping("/import")
+    public ImportResponse importTickets(InputStream body,
+                                       @RequestParam(required = false) String format,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+            throws IOException {
+        TicketExportFormat importFormat = importService.importFormat(format, contentType);
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 64 * 1024) : body;
+        return importService.importTickets(in, importFormat);
+    }
+
+    // If-Match turns the update into a compare-and-set on the row version (412 when it moved on)
     @PutMapping("/{id}")
-    public TicketResponse update(@PathVariable Long id, @RequestBody TicketRequest request) {
-        return service.update(id, request);
+    public ResponseEntity<TicketResponse> update(@PathVariable Long id,
+                                                 @RequestBody TicketRequest request,
+                                                 @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        TicketResponse ticket = service.update(id, request, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(TicketService.etag(ticket)).body(ticket);
     }
 
     @DeleteMapping("/{id}")
@@ -44,4 +167,24 @@ public class TicketController {
     public void delete(@PathVariable Long id) {
         service.delete(id);
     }
+
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        // strong comparison only: weak or foreign tags never match
+        String prefix = id + "-";
+        if (tag.startsWith(prefix)) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length()));
+            } catch (NumberFormatException ignored) {
+                // falls through to 412
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match ticket " + id);
+    }
 }
@@ -0,0 +1,34 @@
+package org.example.endtermprojectapi.controller;
+
+import org.example.endtermprojectapi.dto.IngestStatusResponse;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.service.TicketIngestQueue;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/tickets/async")
+public class TicketIngestController {
+
+    private final TicketIngestQueue ingestQueue;
+
+    public TicketIngestController(TicketIngestQueue ingestQueue) {
+        this.ingestQueue = ingestQueue;
+    }
+
+    // 202 with a tracking id; the ticket is written by the next group commit
+    @PostMapping
+    public ResponseEntity<IngestStatusResponse> submit(@RequestBody TicketRequest request) {
+        IngestStatusResponse queued = ingestQueue.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tickets/async/" + queued.getTrackingId()))
+                .body(queued);
+    }
+
+    @GetMapping("/{trackingId}")
+    public IngestStatusResponse status(@PathVariable String trackingId) {
+        return ingestQueue.status(trackingId);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.endtermprojectapi.dto;
+
+import java.util.List;
+
+public class BatchCreateResponse {
+
+    private final int created;
+    private final int rejected;
+    private final List<BatchItemResult> results;
+
+    public BatchCreateResponse(int created, int rejected, List<BatchItemResult> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.endtermprojectapi.dto;
+
+public class BatchItemResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+
+    private final int index;
+    private final String status;
+    private final TicketResponse ticket;
+    private final String message;
+
+    public BatchItemResult(int index, String status, TicketResponse ticket, String message) {
+        this.index = index;
+        this.status = status;
+        this.ticket = ticket;
+        this.message = message;
+    }
+
+    public static BatchItemResult created(int index, TicketResponse ticket) {
+        return new BatchItemResult(index, CREATED, ticket, null);
+    }
+
+    public static BatchItemResult rejected(int index, String status, String message) {
+        return new BatchItemResult(index, status, null, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public TicketResponse getTicket() {
+        return ticket;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.endtermprojectapi.dto;
+
+public class CacheStatsResponse {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long size;
+    private final long maxEntries;
+    private final long allTicketsHits;
+    private final long allTicketsMisses;
+    private final long allTicketsSize;
+
+    public CacheStatsResponse(long hits, long misses, long evictions, long expirations,
+                              long size, long maxEntries,
+                              long allTicketsHits, long allTicketsMisses, long allTicketsSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.allTicketsHits = allTicketsHits;
+        this.allTicketsMisses = allTicketsMisses;
+        this.allTicketsSize = allTicketsSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getAllTicketsHits() {
+        return allTicketsHits;
+    }
+
+    public long getAllTicketsMisses() {
+        return allTicketsMisses;
+    }
+
+    public long getAllTicketsSize() {
+        return allTicketsSize;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.endtermprojectapi.dto;
+
+import java.time.Instant;
+
+// Body of every error answered by GlobalExceptionHandler; the timestamp is formatted while writing JSON
+public class ErrorResponse {
+
+    private final Instant timestamp;
+    private final int status;
+    private final String error;
+    private final String message;
+
+    public ErrorResponse(Instant timestamp, int status, String error, String message) {
+        this.timestamp = timestamp;
+        this.status = status;
+        this.error = error;
+        this.message = message;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
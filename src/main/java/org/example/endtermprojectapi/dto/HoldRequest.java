@@ -0,0 +1,35 @@
+package org.example.endtermprojectapi.dto;
+
+import java.util.List;
+
+// Either explicit seat numbers or a count of best-available seats
+public class HoldRequest {
+
+    private Long customerId;
+    private List<Integer> seats;
+    private Integer count;
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public List<Integer> getSeats() {
+        return seats;
+    }
+
+    public void setSeats(List<Integer> seats) {
+        this.seats = seats;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
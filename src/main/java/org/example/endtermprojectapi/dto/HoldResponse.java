@@ -0,0 +1,57 @@
+package org.example.endtermprojectapi.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class HoldResponse {
+
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+
+    private final String holdId;
+    private final long movieId;
+    private final long customerId;
+    private final List<Integer> seats;
+    private final String status;
+    private final Instant expiresAt;
+    private final TicketResponse ticket;
+
+    public HoldResponse(String holdId, long movieId, long customerId, List<Integer> seats,
+                        String status, Instant expiresAt, TicketResponse ticket) {
+        this.holdId = holdId;
+        this.movieId = movieId;
+        this.customerId = customerId;
+        this.seats = seats;
+        this.status = status;
+        this.expiresAt = expiresAt;
+        this.ticket = ticket;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public long getMovieId() {
+        return movieId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public List<Integer> getSeats() {
+        return seats;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public TicketResponse getTicket() {
+        return ticket;
+    }
+}
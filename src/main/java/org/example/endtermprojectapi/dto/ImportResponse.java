@@ -0,0 +1,45 @@
+package org.example.endtermprojectapi.dto;
+
+import java.util.List;
+
+public class ImportResponse {
+
+    private final long received;
+    private final long inserted;
+    private final long duplicates;
+    private final long invalid;
+    // only the first few messages, so a bad file cannot blow up the response
+    private final List<String> errors;
+
+    public ImportResponse(long received, long inserted, long duplicates, long invalid, List<String> errors) {
+        this.received = received;
+        this.inserted = inserted;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.errors = errors;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getRejected() {
+        return duplicates + invalid;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.endtermprojectapi.dto;
+
+public class IngestStatusResponse {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String FAILED = "FAILED";
+
+    private final String trackingId;
+    // QUEUED, FAILED, or the batch outcome (CREATED / DUPLICATE / INVALID)
+    private final String status;
+    private final TicketResponse ticket;
+    private final String message;
+
+    public IngestStatusResponse(String trackingId, String status, TicketResponse ticket, String message) {
+        this.trackingId = trackingId;
+        this.status = status;
+        this.ticket = ticket;
+        this.message = message;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public TicketResponse getTicket() {
+        return ticket;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
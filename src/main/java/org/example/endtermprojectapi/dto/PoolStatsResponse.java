@@ -0,0 +1,51 @@
+package org.example.endtermprojectapi.dto;
+
+public class PoolStatsResponse {
+
+    private final String poolName;
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int waiting;
+    private final int minIdle;
+    private final int maxPoolSize;
+
+    public PoolStatsResponse(String poolName, int active, int idle, int total, int waiting,
+                             int minIdle, int maxPoolSize) {
+        this.poolName = poolName;
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiting = waiting;
+        this.minIdle = minIdle;
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.endtermprojectapi.dto;
+
+import java.time.Instant;
+
+public class PricingStatusResponse {
+
+    private final int rules;
+    private final int movies;
+    private final int tiers;
+    private final int customers;
+    private final String zone;
+    private final long tableBytes;
+    private final Instant loadedAt;
+
+    public PricingStatusResponse(int rules, int movies, int tiers, int customers,
+                                 String zone, long tableBytes, Instant loadedAt) {
+        this.rules = rules;
+        this.movies = movies;
+        this.tiers = tiers;
+        this.customers = customers;
+        this.zone = zone;
+        this.tableBytes = tableBytes;
+        this.loadedAt = loadedAt;
+    }
+
+    public int getRules() {
+        return rules;
+    }
+
+    public int getMovies() {
+        return movies;
+    }
+
+    public int getTiers() {
+        return tiers;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public long getTableBytes() {
+        return tableBytes;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.endtermprojectapi.dto;
+
+public class RepriceResponse {
+
+    private final long updated;
+    private final long tookMillis;
+    private final PricingStatusResponse pricing;
+
+    public RepriceResponse(long updated, long tookMillis, PricingStatusResponse pricing) {
+        this.updated = updated;
+        this.tookMillis = tookMillis;
+        this.pricing = pricing;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getTookMillis() {
+        return tookMillis;
+    }
+
+    public PricingStatusResponse getPricing() {
+        return pricing;
+    }
+}
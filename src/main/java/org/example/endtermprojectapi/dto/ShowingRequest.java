@@ -0,0 +1,14 @@
+package org.example.endtermprojectapi.dto;
+
+public class ShowingRequest {
+
+    private Integer seats;
+
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.endtermprojectapi.dto;
+
+public class ShowingResponse {
+
+    private final long movieId;
+    private final int seats;
+    // as seen by this instance; holds placed on other instances show up after the next reload
+    private final int available;
+
+    public ShowingResponse(long movieId, int seats, int available) {
+        this.movieId = movieId;
+        this.seats = seats;
+        this.available = available;
+    }
+
+    public long getMovieId() {
+        return movieId;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+}
@@ -1,11 +1,14 @@
 package org.example.endtermprojectapi.dto;
 
+import java.time.Instant;
+
 public class TicketRequest {
 
     private Long customerId;
     private Long movieId;
     private String type;
     private double basePrice;
+    private Instant showtime;
 
     public Long getCustomerId() {
         return customerId;
@@ -38,4 +41,12 @@ public class TicketRequest {
     public void setBasePrice(double basePrice) {
         this.basePrice = basePrice;
     }
+
+    public Instant getShowtime() {
+        return showtime;
+    }
+
+    public void setShowtime(Instant showtime) {
+        this.showtime = showtime;
+    }
 }
\ No newline at end of file
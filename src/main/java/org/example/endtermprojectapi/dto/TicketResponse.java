@@ -1,45 +1,30 @@
 package org.example.endtermprojectapi.dto;
 
-public class TicketResponse {
-
-    private Long id;
-    private Long customerId;
-    private Long movieId;
-    private String type;
-    private double basePrice;
-    private double finalPrice;
-
-    public TicketResponse(Long id, Long customerId, Long movieId,
-                          String type, double basePrice, double finalPrice) {
-        this.id = id;
-        this.customerId = customerId;
-        this.movieId = movieId;
-        this.type = type;
-        this.basePrice = basePrice;
-        this.finalPrice = finalPrice;
-    }
-
-    public Long getId() {
-        return id;
-    }
-
-    public Long getCustomerId() {
-        return customerId;
-    }
-
-    public Long getMovieId() {
-        return movieId;
-    }
-
-    public String getType() {
-        return type;
-    }
-
-    public double getBasePrice() {
-        return basePrice;
+import org.example.endtermprojectapi.model.TicketType;
+
+import java.time.Instant;
+
+// Immutable and mapped straight from a row (TicketRepository), then shared by the caches and every reader
+public record TicketResponse(
+        long id,
+        long customerId,
+        long movieId,
+        TicketType type,
+        double basePrice,
+        double finalPrice,
+        long version,
+        Instant updatedAt,
+        Instant showtime
+) {
+
+    public TicketResponse(long id, long customerId, long movieId,
+                          TicketType type, double basePrice, double finalPrice) {
+        this(id, customerId, movieId, type, basePrice, finalPrice, 0L, null, null);
     }
 
-    public double getFinalPrice() {
-        return finalPrice;
+    public TicketResponse(long id, long customerId, long movieId,
+                          TicketType type, double basePrice, double finalPrice,
+                          long version, Instant updatedAt) {
+        this(id, customerId, movieId, type, basePrice, finalPrice, version, updatedAt, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package org.example.endtermprojectapi.dto;
+
+public class TicketStatsResponse {
+
+    private final String key;
+    private final long count;
+    private final double totalBasePrice;
+    private final double totalFinalPrice;
+
+    public TicketStatsResponse(String key, long count, double totalBasePrice, double totalFinalPrice) {
+        this.key = key;
+        this.count = count;
+        this.totalBasePrice = totalBasePrice;
+        this.totalFinalPrice = totalFinalPrice;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalBasePrice() {
+        return totalBasePrice;
+    }
+
+    public double getTotalFinalPrice() {
+        return totalFinalPrice;
+    }
+
+    public double getAvgBasePrice() {
+        return count == 0 ? 0.0 : totalBasePrice / count;
+    }
+
+    public double getAvgFinalPrice() {
+        return count == 0 ? 0.0 : totalFinalPrice / count;
+    }
+}
@@ -1,43 +1,74 @@
 package org.example.endtermprojectapi.exception;
 
+import org.example.endtermprojectapi.dto.ErrorResponse;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.Instant;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final TicketMetrics metrics;
+
+    public GlobalExceptionHandler(TicketMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @ExceptionHandler(NotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(NotFoundException ex) {
-        return build(HttpStatus.NOT_FOUND, ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleNotFound(NotFoundException ex) {
+        return build(HttpStatus.NOT_FOUND, ex, ex.getMessage());
     }
 
     @ExceptionHandler(InvalidInputException.class)
-    public ResponseEntity<Map<String, Object>> handleInvalid(InvalidInputException ex) {
-        return build(HttpStatus.BAD_REQUEST, ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleInvalid(InvalidInputException ex) {
+        return build(HttpStatus.BAD_REQUEST, ex, ex.getMessage());
     }
 
     @ExceptionHandler(DuplicateResourceException.class)
-    public ResponseEntity<Map<String, Object>> handleDuplicate(DuplicateResourceException ex) {
-        return build(HttpStatus.CONFLICT, ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleDuplicate(DuplicateResourceException ex) {
+        return build(HttpStatus.CONFLICT, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        return build(HttpStatus.PRECONDITION_FAILED, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleQueueFull(QueueFullException ex) {
+        return build(HttpStatus.TOO_MANY_REQUESTS, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(SeatUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleSeatUnavailable(SeatUnavailableException ex) {
+        return build(HttpStatus.CONFLICT, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(HoldExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleHoldExpired(HoldExpiredException ex) {
+        return build(HttpStatus.GONE, ex, ex.getMessage());
+    }
+
+    // pool or connection-permit exhaustion: the caller may retry
+    @ExceptionHandler(CannotGetJdbcConnectionException.class)
+    public ResponseEntity<ErrorResponse> handleNoConnection(CannotGetJdbcConnectionException ex) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, ex, "Database is busy, try again later");
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleOther(Exception ex) {
-        return build(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
+    public ResponseEntity<ErrorResponse> handleOther(Exception ex) {
+        return build(HttpStatus.INTERNAL_SERVER_ERROR, ex, "Unexpected error");
     }
 
-    private ResponseEntity<Map<String, Object>> build(HttpStatus status, String message) {
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", Instant.now().toString());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
+    private ResponseEntity<ErrorResponse> build(HttpStatus status, Exception ex, String message) {
+        metrics.recordError(status.value(), ex.getClass());
+
+        ErrorResponse body = new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(), message);
         return ResponseEntity.status(status).body(body);
     }
 }
\ No newline at end of file
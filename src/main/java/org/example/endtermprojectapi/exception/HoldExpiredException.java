@@ -0,0 +1,7 @@
+package org.example.endtermprojectapi.exception;
+
+public class HoldExpiredException extends RuntimeException {
+    public HoldExpiredException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,8 @@
 package org.example.endtermprojectapi.exception;
 
+// Answered with a 404 and never logged, so the stack trace would only cost time on every miss
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
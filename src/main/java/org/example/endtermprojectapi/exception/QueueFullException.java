@@ -0,0 +1,7 @@
+package org.example.endtermprojectapi.exception;
+
+public class QueueFullException extends RuntimeException {
+    public QueueFullException(String message) {
+        super(message);
+    }
+}
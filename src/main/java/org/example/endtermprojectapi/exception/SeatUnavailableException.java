@@ -0,0 +1,7 @@
+package org.example.endtermprojectapi.exception;
+
+public class SeatUnavailableException extends RuntimeException {
+    public SeatUnavailableException(String message) {
+        super(message);
+    }
+}
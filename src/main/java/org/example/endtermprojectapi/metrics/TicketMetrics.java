@@ -0,0 +1,65 @@
+package org.example.endtermprojectapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class TicketMetrics {
+
+    private final MeterRegistry registry;
+
+    // meters are looked up once per name, not rebuilt on every call
+    private final Map<String, Timer> queryTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> queryRows = new ConcurrentHashMap<>();
+    // one counter per exception class: the handler answers a given class with the same status every time
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public TicketMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    public <T> T timeQuery(String query, Supplier<T> call) {
+        return queryTimer(query).record(call);
+    }
+
+    public void recordQuery(String query, Runnable call) {
+        queryTimer(query).record(call);
+    }
+
+    public void recordRows(String query, int rows) {
+        queryRows.computeIfAbsent(query, q -> DistributionSummary.builder("ticket.repository.rows")
+                .description("Rows returned or affected per repository call")
+                .tag("query", q)
+                .register(registry)
+        ).record(rows);
+    }
+
+    public void recordError(int status, Class<?> exception) {
+        errorCounters.computeIfAbsent(exception, type -> Counter.builder("ticket.api.errors")
+                .description("Requests answered by GlobalExceptionHandler")
+                .tag("status", String.valueOf(status))
+                .tag("exception", type.getSimpleName())
+                .register(registry)
+        ).increment();
+    }
+
+    private Timer queryTimer(String query) {
+        return queryTimers.computeIfAbsent(query, q -> Timer.builder("ticket.repository.query")
+                .description("TicketRepository call latency")
+                .tag("query", q)
+                .publishPercentileHistogram()
+                .register(registry)
+        );
+    }
+}
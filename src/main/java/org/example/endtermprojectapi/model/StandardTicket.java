@@ -4,11 +4,15 @@ public class StandardTicket extends TicketBase {
 
 
     public StandardTicket(Long customerId, Long movieId, double basePrice) {
-        this(null, customerId, movieId, basePrice, basePrice);
+        this(null, customerId, movieId, basePrice, finalPrice(basePrice));
     }
 
 
     public StandardTicket(Long id, Long customerId, Long movieId, double basePrice, double finalPrice) {
         super(id, customerId, movieId, "STANDARD", basePrice, finalPrice);
     }
-}
\ No newline at end of file
+
+    public static double finalPrice(double basePrice) {
+        return basePrice;
+    }
+}
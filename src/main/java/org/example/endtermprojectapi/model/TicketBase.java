@@ -1,5 +1,7 @@
 package org.example.endtermprojectapi.model;
 
+import java.time.Instant;
+
 public abstract class TicketBase {
 
     protected Long id;
@@ -8,6 +10,11 @@ public abstract class TicketBase {
     protected String type;
     protected double basePrice;
     protected double finalPrice;
+    // row version, bumped by every update; 0 until the ticket is saved
+    protected long version;
+    protected Instant updatedAt;
+    // optional; drives time-of-day pricing rules
+    protected Instant showtime;
 
     protected TicketBase(
             Long id,
@@ -34,6 +41,18 @@ public abstract class TicketBase {
         this.finalPrice = finalPrice;
     }
 
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public void setShowtime(Instant showtime) {
+        this.showtime = showtime;
+    }
+
 
     public Long getId() { return id; }
     public Long getCustomerId() { return customerId; }
@@ -41,4 +60,7 @@ public abstract class TicketBase {
     public String getType() { return type; }
     public double getBasePrice() { return basePrice; }
     public double getFinalPrice() { return finalPrice; }
+    public long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getShowtime() { return showtime; }
 }
\ No newline at end of file
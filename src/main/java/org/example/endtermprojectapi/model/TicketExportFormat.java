@@ -0,0 +1,33 @@
+package org.example.endtermprojectapi.model;
+
+// Output formats of the bulk export, with the COPY options that produce each one
+public enum TicketExportFormat {
+
+    CSV("text/csv", "csv", "FORMAT csv, HEADER true"),
+    // one json_build_object() per line; the control-character quote/delimiter keep COPY from escaping the JSON
+    NDJSON("application/x-ndjson", "ndjson", "FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02'"),
+    // Postgres binary COPY format, readable by COPY ... FROM ... (FORMAT binary)
+    BINARY("application/octet-stream", "bin", "FORMAT binary");
+
+    private final String contentType;
+    private final String extension;
+    private final String copyOptions;
+
+    TicketExportFormat(String contentType, String extension, String copyOptions) {
+        this.contentType = contentType;
+        this.extension = extension;
+        this.copyOptions = copyOptions;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String copyOptions() {
+        return copyOptions;
+    }
+}
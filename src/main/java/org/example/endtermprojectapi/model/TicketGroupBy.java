@@ -0,0 +1,19 @@
+package org.example.endtermprojectapi.model;
+
+// Dimensions the ticket stats can be grouped by, with the column each one maps to
+public enum TicketGroupBy {
+
+    MOVIE("movie_id"),
+    CUSTOMER("customer_id"),
+    TYPE("type");
+
+    private final String column;
+
+    TicketGroupBy(String column) {
+        this.column = column;
+    }
+
+    public String column() {
+        return column;
+    }
+}
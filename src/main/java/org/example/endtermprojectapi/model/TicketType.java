@@ -0,0 +1,18 @@
+package org.example.endtermprojectapi.model;
+
+// Ticket types as stored in tickets.type; read rows carry the constant instead of a fresh String each
+public enum TicketType {
+
+    VIP,
+    STANDARD;
+
+    // Every write stores one of these exact names, so no case folding; anything that is not VIP reads as STANDARD
+    public static TicketType fromDb(String type) {
+        return "VIP".equals(type) ? VIP : STANDARD;
+    }
+
+    // Case-insensitive, for values that did not come from the database
+    public static TicketType of(String type) {
+        return "VIP".equalsIgnoreCase(type) ? VIP : STANDARD;
+    }
+}
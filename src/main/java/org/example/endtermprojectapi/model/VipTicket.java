@@ -1,12 +1,18 @@
 package org.example.endtermprojectapi.model;
 
+import org.example.endtermprojectapi.pricing.PriceTable;
+
 public class VipTicket extends TicketBase {
 
     public VipTicket(Long customerId, Long movieId, double basePrice) {
-        this(null, customerId, movieId, basePrice, basePrice * 1.5);
+        this(null, customerId, movieId, basePrice, finalPrice(basePrice));
     }
 
     public VipTicket(Long id, Long customerId, Long movieId, double basePrice, double finalPrice) {
         super(id, customerId, movieId, "VIP", basePrice, finalPrice);
     }
-}
\ No newline at end of file
+
+    public static double finalPrice(double basePrice) {
+        return basePrice * PriceTable.VIP_MULTIPLIER;
+    }
+}
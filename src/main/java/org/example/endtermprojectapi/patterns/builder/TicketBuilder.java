@@ -3,14 +3,19 @@ package org.example.endtermprojectapi.patterns.builder;
 import org.example.endtermprojectapi.exception.InvalidInputException;
 import org.example.endtermprojectapi.model.StandardTicket;
 import org.example.endtermprojectapi.model.TicketBase;
+import org.example.endtermprojectapi.model.TicketType;
 import org.example.endtermprojectapi.model.VipTicket;
 
+import java.time.Instant;
+import java.util.Locale;
+
 public class TicketBuilder {
 
     private Long customerId;
     private Long movieId;
     private String type;
     private Double basePrice;
+    private Instant showtime;
 
     public TicketBuilder customerId(Long customerId) {
         this.customerId = customerId;
@@ -32,17 +37,33 @@ public class TicketBuilder {
         return this;
     }
 
+    public TicketBuilder showtime(Instant showtime) {
+        this.showtime = showtime;
+        return this;
+    }
+
     public TicketBase build() {
+        TicketBase ticket = switch (validate(customerId, movieId, type, basePrice)) {
+            case STANDARD -> new StandardTicket(customerId, movieId, basePrice);
+            case VIP -> new VipTicket(customerId, movieId, basePrice);
+        };
+        ticket.setShowtime(showtime);
+        return ticket;
+    }
+
+    // The ticket field rules, also used by paths that never build a model (bulk import, queued ingestion)
+    public static TicketType validate(Long customerId, Long movieId, String type, Double basePrice) {
         if (customerId == null || customerId <= 0) throw new InvalidInputException("customerId must be > 0");
         if (movieId == null || movieId <= 0) throw new InvalidInputException("movieId must be > 0");
-        if (type == null || type.isBlank()) throw new InvalidInputException("type is required");
-        if (basePrice == null || basePrice <= 0) throw new InvalidInputException("basePrice must be > 0");
-
-        String t = type.trim().toUpperCase();
+        if (type == null || type.isBlank()) throw new InvalidInputException("type is required (VIP or STANDARD)");
+        // written so NaN fails too
+        if (basePrice == null || !(basePrice > 0) || basePrice.isInfinite()) {
+            throw new InvalidInputException("basePrice must be > 0");
+        }
 
-        return switch (t) {
-            case "STANDARD" -> new StandardTicket(customerId, movieId, basePrice);
-            case "VIP" -> new VipTicket(customerId, movieId, basePrice);
+        return switch (type.trim().toUpperCase(Locale.ROOT)) {
+            case "STANDARD" -> TicketType.STANDARD;
+            case "VIP" -> TicketType.VIP;
             default -> throw new InvalidInputException("Unknown ticket type: " + type);
         };
     }
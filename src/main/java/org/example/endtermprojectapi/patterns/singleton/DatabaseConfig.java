@@ -1,32 +1,31 @@
 package org.example.endtermprojectapi.patterns.singleton;
 
 import javax.sql.DataSource;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 public class DatabaseConfig {
 
-    private static DatabaseConfig instance;
+    private DatabaseConfig() {}
 
-    private DataSource dataSource;
-
-    private DatabaseConfig() {
-        DriverManagerDataSource ds = new DriverManagerDataSource();
-        ds.setDriverClassName("org.postgresql.Driver");
-        ds.setUrl("jdbc:postgresql://localhost:5432/endterm_db");
-        ds.setUsername("postgres");
-        ds.setPassword("1234");
-
-        this.dataSource = ds;
+    private static class Holder {
+        private static final DatabaseConfig INSTANCE = new DatabaseConfig();
     }
 
     public static DatabaseConfig getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConfig();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    // The pooled DataSource Spring builds from application.properties, shared with JdbcTemplate
+    private volatile DataSource dataSource;
+
+    public void bind(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     public DataSource getDataSource() {
-        return dataSource;
+        DataSource ds = dataSource;
+        if (ds == null) {
+            throw new IllegalStateException("DataSource is not initialized yet");
+        }
+        return ds;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package org.example.endtermprojectapi.pricing;
+
+import org.example.endtermprojectapi.cache.LongIntHashMap;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pricing rules compiled into a dense (movie slot, type, tier, showtime hour) grid of
+ * (multiplier, surcharge) pairs, so pricing a ticket is two hash probes and an array read.
+ * Immutable once built: the hash maps are never written after compile, so the table is
+ * safe to share between threads and is replaced as a whole on reload.
+ */
+public final class PriceTable {
+
+    public static final String VIP = "VIP";
+    public static final String STANDARD = "STANDARD";
+
+    // 24 hours plus one cell for tickets without a showtime
+    private static final int HOUR_CELLS = 25;
+    private static final int NO_SHOWTIME = 24;
+    private static final int TYPES = 2;
+
+    // without a matching rule: the historical VIP / STANDARD markups, also used by VipTicket and the reprice SQL
+    public static final double VIP_MULTIPLIER = 1.5;
+    public static final double STANDARD_MULTIPLIER = 1.0;
+
+    // interleaved multiplier / surcharge per cell
+    private final double[] cells;
+    // movie id -> slot; slot 0 is every movie without a rule of its own
+    private final LongIntHashMap movieSlots;
+    // customer id -> tier index; 0 is "no tier any rule cares about"
+    private final LongIntHashMap customerTiers;
+    private final int tierCells;
+    private final int ruleCount;
+    private final ZoneRules zoneRules;
+    private final Instant loadedAt;
+
+    private PriceTable(double[] cells, LongIntHashMap movieSlots, LongIntHashMap customerTiers,
+                       int tierCells, int ruleCount, ZoneRules zoneRules) {
+        this.cells = cells;
+        this.movieSlots = movieSlots;
+        this.customerTiers = customerTiers;
+        this.tierCells = tierCells;
+        this.ruleCount = ruleCount;
+        this.zoneRules = zoneRules;
+        this.loadedAt = Instant.now();
+    }
+
+    public static PriceTable defaults(ZoneId zone) {
+        return compile(List.of(), List.of(), new LongIntHashMap(4), zone);
+    }
+
+    /**
+     * @param tiers         tier names; customerTiers maps customer ids to (index in this list) + 1
+     * @param customerTiers taken over by the table, must not be modified afterwards
+     */
+    public static PriceTable compile(List<PricingRule> rules, List<String> tiers,
+                                     LongIntHashMap customerTiers, ZoneId zone) {
+        LongIntHashMap movieSlots = new LongIntHashMap(Math.max(4, rules.size()));
+        int slots = 1;
+        for (PricingRule rule : rules) {
+            if (rule.movieId() != null && movieSlots.get(rule.movieId()) == LongIntHashMap.MISSING) {
+                movieSlots.put(rule.movieId(), slots++);
+            }
+        }
+        int tierCells = tiers.size() + 1;
+        int slotCells = TYPES * tierCells * HOUR_CELLS;
+
+        double[] cells = new double[slots * slotCells * 2];
+        for (int slot = 0; slot < slots; slot++) {
+            for (int type = 0; type < TYPES; type++) {
+                double multiplier = type == 0 ? VIP_MULTIPLIER : STANDARD_MULTIPLIER;
+                for (int tier = 0; tier < tierCells; tier++) {
+                    for (int hour = 0; hour < HOUR_CELLS; hour++) {
+                        int cell = cell(slot, type, tier, hour, tierCells);
+                        cells[cell] = multiplier;
+                        cells[cell + 1] = 0.0;
+                    }
+                }
+            }
+        }
+
+        // paint from the weakest rule to the strongest, so every cell ends up with the winner
+        List<PricingRule> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingInt(PricingRule::priority)
+                .thenComparingInt(PricingRule::specificity)
+                .thenComparingLong(PricingRule::id));
+        int compiled = 0;
+        for (PricingRule rule : ordered) {
+            int type = typeIndex(rule.ticketType());
+            if (type < 0) {
+                continue;
+            }
+            int firstSlot = rule.movieId() == null ? 0 : movieSlots.get(rule.movieId());
+            int lastSlot = rule.movieId() == null ? slots - 1 : firstSlot;
+            int firstTier = rule.customerTier() == null ? 0 : tiers.indexOf(rule.customerTier()) + 1;
+            int lastTier = rule.customerTier() == null ? tierCells - 1 : firstTier;
+            if (rule.customerTier() != null && firstTier == 0) {
+                continue;
+            }
+            int lastHour = rule.coversWholeDay() ? NO_SHOWTIME : rule.toHour() - 1;
+
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                for (int tier = firstTier; tier <= lastTier; tier++) {
+                    for (int hour = rule.fromHour(); hour <= lastHour; hour++) {
+                        int cell = cell(slot, type, tier, hour, tierCells);
+                        cells[cell] = rule.multiplier();
+                        cells[cell + 1] = rule.surcharge();
+                    }
+                }
+            }
+            compiled++;
+        }
+
+        return new PriceTable(cells, movieSlots, customerTiers, tierCells, compiled, zone.getRules());
+    }
+
+    // type must already be normalized (upper case); no allocation on this path
+    public double finalPrice(String type, long movieId, long customerId, Instant showtime, double basePrice) {
+        int t = typeIndex(type);
+        if (t < 0) {
+            throw new IllegalArgumentException("Unknown ticket type: " + type);
+        }
+        int slot = movieSlots.size() == 0 ? 0 : Math.max(0, movieSlots.get(movieId));
+        int tier = customerTiers.size() == 0 ? 0 : Math.max(0, customerTiers.get(customerId));
+        int hour = showtime == null ? NO_SHOWTIME : hourOf(showtime);
+        int cell = cell(slot, t, tier, hour, tierCells);
+        return basePrice * cells[cell] + cells[cell + 1];
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    public int movieCount() {
+        return movieSlots.size();
+    }
+
+    public int tierCount() {
+        return tierCells - 1;
+    }
+
+    public int customerCount() {
+        return customerTiers.size();
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public long memoryBytes() {
+        return (long) cells.length * Double.BYTES + movieSlots.memoryBytes() + customerTiers.memoryBytes();
+    }
+
+    private int hourOf(Instant showtime) {
+        long seconds = showtime.getEpochSecond() + zoneRules.getOffset(showtime).getTotalSeconds();
+        return (int) (Math.floorMod(seconds, 86_400L) / 3_600L);
+    }
+
+    private static int cell(int slot, int type, int tier, int hour, int tierCells) {
+        return (((slot * TYPES + type) * tierCells + tier) * HOUR_CELLS + hour) * 2;
+    }
+
+    private static int typeIndex(String type) {
+        if (VIP.equals(type)) return 0;
+        if (STANDARD.equals(type)) return 1;
+        return -1;
+    }
+}
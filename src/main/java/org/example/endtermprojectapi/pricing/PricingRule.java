@@ -0,0 +1,22 @@
+package org.example.endtermprojectapi.pricing;
+
+// One row of pricing_rules; null movieId / customerTier match any movie / tier
+public record PricingRule(long id,
+                          String ticketType,
+                          Long movieId,
+                          String customerTier,
+                          int fromHour,
+                          int toHour,
+                          double multiplier,
+                          double surcharge,
+                          int priority) {
+
+    public boolean coversWholeDay() {
+        return fromHour == 0 && toHour == 24;
+    }
+
+    // tie-breaker after priority; must match the ORDER BY of the SQL reprice
+    public int specificity() {
+        return (movieId != null ? 4 : 0) + (customerTier != null ? 2 : 0) + (coversWholeDay() ? 0 : 1);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.endtermprojectapi.repository;
+
+import org.example.endtermprojectapi.config.ReplicaRouting;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.example.endtermprojectapi.pricing.PriceTable;
+import org.example.endtermprojectapi.pricing.PricingRule;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class PricingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate streamTransaction;
+    private final TicketMetrics metrics;
+
+    public PricingRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             TicketMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+        this.streamTransaction = new TransactionTemplate(transactionManager);
+        this.streamTransaction.setReadOnly(true);
+    }
+
+    public List<PricingRule> findRules() {
+        String sql = "SELECT id, ticket_type, movie_id, customer_tier, from_hour, to_hour,"
+                + " multiplier, surcharge, priority FROM pricing_rules ORDER BY id";
+        return metrics.timeQuery("findPricingRules", () -> jdbcTemplate.query(sql, (rs, rowNum) ->
+                new PricingRule(
+                        rs.getLong("id"),
+                        rs.getString("ticket_type"),
+                        rs.getObject("movie_id", Long.class),
+                        rs.getString("customer_tier"),
+                        rs.getInt("from_hour"),
+                        rs.getInt("to_hour"),
+                        rs.getDouble("multiplier"),
+                        rs.getDouble("surcharge"),
+                        rs.getInt("priority")
+                )));
+    }
+
+    // Only customers in a tier some rule refers to; everyone else prices as "no tier" anyway
+    public void streamCustomerTiers(Collection<String> tiers, int fetchSize, CustomerTierHandler handler) {
+        if (tiers.isEmpty()) {
+            return;
+        }
+        String sql = "SELECT customer_id, tier FROM customer_tiers WHERE tier = ANY(?)";
+        String[] values = tiers.toArray(new String[0]);
+        metrics.recordQuery("streamCustomerTiers", () -> streamTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(
+                        con -> {
+                            PreparedStatement ps = con.prepareStatement(
+                                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                            ps.setFetchSize(fetchSize);
+                            ps.setArray(1, con.createArrayOf("varchar", values));
+                            return ps;
+                        },
+                        (RowCallbackHandler) rs -> handler.accept(rs.getLong(1), rs.getString(2))
+                )
+        ));
+    }
+
+    public long maxTicketId() {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tickets", Long.class);
+        return max == null ? 0L : max;
+    }
+
+    // Recomputes final_price for ids in (afterId, toId] with the same rule resolution as PriceTable:
+    // highest priority, then most specific, then newest rule; no rule means the PriceTable default markups.
+    // Rows whose price does not change are left alone (no version bump).
+    public int repriceRange(long afterId, long toId, String zone) {
+        String sql = """
+                UPDATE tickets t
+                SET final_price = p.final_price, version = t.version + 1, updated_at = now()
+                FROM (
+                    SELECT s.id,
+                           s.base_price * COALESCE(r.multiplier, CASE WHEN s.type = 'VIP' THEN ? ELSE ? END)
+                               + COALESCE(r.surcharge, 0) AS final_price
+                    FROM tickets s
+                    LEFT JOIN customer_tiers c ON c.customer_id = s.customer_id
+                    LEFT JOIN LATERAL (
+                        SELECT r.multiplier, r.surcharge
+                        FROM pricing_rules r
+                        WHERE r.ticket_type = s.type
+                          AND (r.movie_id IS NULL OR r.movie_id = s.movie_id)
+                          AND (r.customer_tier IS NULL OR r.customer_tier = c.tier)
+                          AND CASE WHEN s.showtime IS NULL THEN r.from_hour = 0 AND r.to_hour = 24
+                                   ELSE EXTRACT(HOUR FROM s.showtime AT TIME ZONE ?) >= r.from_hour
+                                        AND EXTRACT(HOUR FROM s.showtime AT TIME ZONE ?) < r.to_hour
+                              END
+                        ORDER BY r.priority DESC,
+                                 (r.movie_id IS NOT NULL)::int * 4 + (r.customer_tier IS NOT NULL)::int * 2
+                                     + (r.from_hour > 0 OR r.to_hour < 24)::int DESC,
+                                 r.id DESC
+                        LIMIT 1
+                    ) r ON true
+                    WHERE s.id > ? AND s.id <= ?
+                ) p
+                WHERE t.id = p.id AND t.final_price IS DISTINCT FROM p.final_price
+                """;
+        int updated = metrics.timeQuery("repriceRange", () -> jdbcTemplate.update(sql,
+                PriceTable.VIP_MULTIPLIER, PriceTable.STANDARD_MULTIPLIER, zone, zone, afterId, toId));
+        ReplicaRouting.wrote();
+        metrics.recordRows("repriceRange", updated);
+        return updated;
+    }
+
+    @FunctionalInterface
+    public interface CustomerTierHandler {
+        void accept(long customerId, String tier);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.endtermprojectapi.repository;
+
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// seat_holds has one row per taken seat; its (movie_id, seat) primary key is what finally rules out overselling
+@Repository
+public class SeatRepository {
+
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+
+    private static final int SWEEP_BATCH = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final TicketMetrics metrics;
+
+    public SeatRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          TicketMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public Integer findCapacity(long movieId) {
+        List<Integer> seats = jdbcTemplate.queryForList(
+                "SELECT seats FROM showings WHERE movie_id = ?", Integer.class, movieId);
+        return seats.isEmpty() ? null : seats.get(0);
+    }
+
+    // Confirmed seats and holds that have not run out yet
+    public List<Integer> findTakenSeats(long movieId) {
+        String sql = "SELECT seat FROM seat_holds WHERE movie_id = ?"
+                + " AND (status = 'CONFIRMED' OR expires_at > now())";
+        List<Integer> seats = metrics.timeQuery("findTakenSeats",
+                () -> jdbcTemplate.queryForList(sql, Integer.class, movieId));
+        metrics.recordRows("findTakenSeats", seats.size());
+        return seats;
+    }
+
+    // Refuses (false) to shrink a showing below a seat that is held or sold
+    public boolean upsertShowing(long movieId, int seats) {
+        String sql = """
+                INSERT INTO showings (movie_id, seats) VALUES (?, ?)
+                ON CONFLICT (movie_id) DO UPDATE SET seats = EXCLUDED.seats
+                WHERE NOT EXISTS (SELECT 1 FROM seat_holds h
+                                  WHERE h.movie_id = EXCLUDED.movie_id AND h.seat > EXCLUDED.seats)
+                """;
+        return jdbcTemplate.update(sql, movieId, seats) == 1;
+    }
+
+    // All seats or none: a seat that is taken (or outside the showing) rolls the whole hold back.
+    // A hold that has run out but was not swept yet is taken over. Returns the expiry, or null.
+    public Instant insertHold(long movieId, int[] seats, UUID holdId, long customerId, Duration ttl) {
+        String sql = """
+                INSERT INTO seat_holds (movie_id, seat, hold_id, customer_id, status, expires_at)
+                SELECT ?, s, ?, ?, 'HELD', now() + ? * interval '1 millisecond'
+                FROM unnest(?::int[]) AS s
+                WHERE s BETWEEN 1 AND (SELECT seats FROM showings WHERE movie_id = ?)
+                ON CONFLICT (movie_id, seat) DO UPDATE
+                SET hold_id = EXCLUDED.hold_id, customer_id = EXCLUDED.customer_id, status = 'HELD',
+                    expires_at = EXCLUDED.expires_at, ticket_id = NULL
+                WHERE seat_holds.status = 'HELD' AND seat_holds.expires_at <= now()
+                RETURNING expires_at
+                """;
+        Integer[] values = new Integer[seats.length];
+        for (int i = 0; i < seats.length; i++) {
+            values[i] = seats[i];
+        }
+        return metrics.timeQuery("insertHold", () -> writeTransaction.execute(status -> {
+            List<Timestamp> inserted = jdbcTemplate.query(sql,
+                    ps -> {
+                        ps.setLong(1, movieId);
+                        ps.setObject(2, holdId);
+                        ps.setLong(3, customerId);
+                        ps.setLong(4, ttl.toMillis());
+                        ps.setArray(5, ps.getConnection().createArrayOf("int4", values));
+                        ps.setLong(6, movieId);
+                    },
+                    (rs, rowNum) -> rs.getTimestamp(1));
+            if (inserted.size() != seats.length) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return inserted.get(0).toInstant();
+        }));
+    }
+
+    // A live hold or a ticket (confirmed or created directly) for the showing: one booking per customer
+    public boolean hasBooking(long movieId, long customerId) {
+        String sql = """
+                SELECT EXISTS (SELECT 1 FROM seat_holds
+                               WHERE movie_id = ? AND customer_id = ? AND status = 'HELD' AND expires_at > now())
+                    OR EXISTS (SELECT 1 FROM tickets WHERE movie_id = ? AND customer_id = ?)
+                """;
+        return Boolean.TRUE.equals(metrics.timeQuery("hasBooking", () -> jdbcTemplate.queryForObject(
+                sql, Boolean.class, movieId, customerId, movieId, customerId)));
+    }
+
+    public HoldRow findHold(UUID holdId) {
+        String sql = "SELECT movie_id, customer_id, status, expires_at, expires_at <= now() AS expired, seat"
+                + " FROM seat_holds WHERE hold_id = ? ORDER BY seat";
+        List<HoldRow> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Timestamp expiresAt = rs.getTimestamp("expires_at");
+            return new HoldRow(
+                    rs.getLong("movie_id"),
+                    rs.getLong("customer_id"),
+                    rs.getString("status"),
+                    expiresAt == null ? null : expiresAt.toInstant(),
+                    rs.getBoolean("expired"),
+                    List.of(rs.getInt("seat")));
+        }, holdId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        HoldRow first = rows.get(0);
+        return new HoldRow(first.movieId(), first.customerId(), first.status(), first.expiresAt(),
+                first.expired(), rows.stream().map(r -> r.seats().get(0)).toList());
+    }
+
+    // Conditional on the hold still being live, so it cannot race past an expiry; returns the seat count
+    public int confirmHold(UUID holdId, long ticketId) {
+        String sql = "UPDATE seat_holds SET status = 'CONFIRMED', expires_at = NULL, ticket_id = ?"
+                + " WHERE hold_id = ? AND status = 'HELD' AND expires_at > now()";
+        return metrics.timeQuery("confirmHold", () -> jdbcTemplate.update(sql, ticketId, holdId));
+    }
+
+    public int[] releaseHold(UUID holdId, long movieId) {
+        String sql = "DELETE FROM seat_holds WHERE hold_id = ? AND movie_id = ? AND status = 'HELD' RETURNING seat";
+        return toArray(jdbcTemplate.queryForList(sql, Integer.class, holdId, movieId));
+    }
+
+    // Only if it really ran out (by the database clock) and was not confirmed meanwhile
+    public int[] expireHold(UUID holdId) {
+        String sql = "DELETE FROM seat_holds WHERE hold_id = ? AND status = 'HELD' AND expires_at <= now()"
+                + " RETURNING seat";
+        return toArray(jdbcTemplate.queryForList(sql, Integer.class, holdId));
+    }
+
+    // Catches holds whose instance went away before its timer fired
+    public List<SeatRef> sweepExpired() {
+        String sql = """
+                DELETE FROM seat_holds
+                WHERE ctid IN (SELECT ctid FROM seat_holds
+                               WHERE status = 'HELD' AND expires_at <= now()
+                               LIMIT ?)
+                RETURNING movie_id, seat
+                """;
+        List<SeatRef> swept = metrics.timeQuery("sweepExpired", () -> jdbcTemplate.query(sql,
+                (rs, rowNum) -> new SeatRef(rs.getLong(1), rs.getInt(2)), SWEEP_BATCH));
+        metrics.recordRows("sweepExpired", swept.size());
+        return swept;
+    }
+
+    private static int[] toArray(List<Integer> seats) {
+        return seats.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public record HoldRow(long movieId, long customerId, String status, Instant expiresAt,
+                          boolean expired, List<Integer> seats) {}
+
+    public record SeatRef(long movieId, int seat) {}
+}
@@ -1,109 +1,527 @@
 package org.example.endtermprojectapi.repository;
 
-import org.example.endtermprojectapi.patterns.factory.TicketFactory;
+import org.example.endtermprojectapi.config.ReplicaRouting;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.dto.TicketStatsResponse;
+import org.example.endtermprojectapi.exception.DuplicateResourceException;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.example.endtermprojectapi.exception.PreconditionFailedException;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
 import org.example.endtermprojectapi.model.TicketBase;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.example.endtermprojectapi.model.TicketExportFormat;
+import org.example.endtermprojectapi.model.TicketGroupBy;
+import org.example.endtermprojectapi.model.TicketType;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Repository
 public class TicketRepository {
 
+    private static final String DUPLICATE_MESSAGE = "Duplicate ticket for same customer/movie/type";
+
+    // TICKET_ROW reads these by position, keep the two in step
+    private static final String COLUMNS = "id, customer_id, movie_id, type, base_price, final_price, version, updated_at, showtime";
+
+    // Straight into the immutable response: no intermediate model, no per-row column-name lookups
+    private static final RowMapper<TicketResponse> TICKET_ROW = (rs, rowNum) -> new TicketResponse(
+            rs.getLong(1),
+            rs.getLong(2),
+            rs.getLong(3),
+            TicketType.fromDb(rs.getString(4)),
+            rs.getDouble(5),
+            rs.getDouble(6),
+            rs.getLong(7),
+            rs.getTimestamp(8).toInstant(),
+            instant(rs.getTimestamp(9))
+    );
+
+    // 6 bind parameters per row, well under the 65535 parameter limit of the Postgres protocol
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     private final JdbcTemplate jdbcTemplate;
-    private final TicketFactory factory;
+    private final TransactionTemplate streamTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final TicketMetrics metrics;
 
-    public TicketRepository(JdbcTemplate jdbcTemplate, TicketFactory factory) {
+    public TicketRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            TicketMetrics metrics) {
         this.jdbcTemplate = jdbcTemplate;
-        this.factory = factory;
-    }
-
-    public List<TicketBase> findAll() {
-        String sql = "SELECT id, customer_id, movie_id, type, base_price, final_price FROM tickets ORDER BY id";
-        return jdbcTemplate.query(sql, (rs, rowNum) ->
-                factory.createFromDb(
-                        rs.getLong("id"),
-                        rs.getLong("customer_id"),
-                        rs.getLong("movie_id"),
-                        rs.getString("type"),
-                        rs.getDouble("base_price"),
-                        rs.getDouble("final_price")
+        this.metrics = metrics;
+        this.streamTransaction = new TransactionTemplate(transactionManager);
+        this.streamTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public List<TicketResponse> findAll() {
+        String sql = "SELECT " + COLUMNS + " FROM tickets ORDER BY id";
+        List<TicketResponse> rows = read("findAll", () -> jdbcTemplate.query(sql, TICKET_ROW));
+        metrics.recordRows("findAll", rows.size());
+        return rows;
+    }
+
+    public List<TicketResponse> findPage(long afterId, int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM tickets WHERE id > ? ORDER BY id LIMIT ?";
+        List<TicketResponse> rows = read("findPage", () -> jdbcTemplate.query(sql, TICKET_ROW, afterId, limit));
+        metrics.recordRows("findPage", rows.size());
+        return rows;
+    }
+
+    // Postgres only uses a server-side cursor when autocommit is off and a fetch size is set,
+    // so the scan runs in a read-only transaction and hands rows out one at a time.
+    public void streamAll(int fetchSize, Consumer<TicketResponse> consumer) {
+        String sql = "SELECT " + COLUMNS + " FROM tickets ORDER BY id";
+        int[] rows = new int[1];
+        metrics.recordQuery("streamAll", () -> streamTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(
+                        con -> {
+                            PreparedStatement ps = con.prepareStatement(
+                                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                            ps.setFetchSize(fetchSize);
+                            return ps;
+                        },
+                        (RowCallbackHandler) rs -> {
+                            consumer.accept(TICKET_ROW.mapRow(rs, 0));
+                            rows[0]++;
+                        }
                 )
-        );
+        ));
+        metrics.recordRows("streamAll", rows[0]);
+    }
+
+    public List<TicketResponse> findByCustomerId(Long customerId) {
+        String sql = "SELECT " + COLUMNS + " FROM tickets WHERE customer_id = ? ORDER BY id";
+        List<TicketResponse> rows = read("findByCustomerId", () -> jdbcTemplate.query(sql, TICKET_ROW, customerId));
+        metrics.recordRows("findByCustomerId", rows.size());
+        return rows;
+    }
+
+    public List<TicketResponse> findByMovieId(Long movieId) {
+        String sql = "SELECT " + COLUMNS + " FROM tickets WHERE movie_id = ? ORDER BY id";
+        List<TicketResponse> rows = read("findByMovieId", () -> jdbcTemplate.query(sql, TICKET_ROW, movieId));
+        metrics.recordRows("findByMovieId", rows.size());
+        return rows;
     }
 
-    public TicketBase findById(Long id) throws EmptyResultDataAccessException {
-        String sql = "SELECT id, customer_id, movie_id, type, base_price, final_price FROM tickets WHERE id = ?";
-        return jdbcTemplate.queryForObject(sql, (rs, rowNum) ->
-                factory.createFromDb(
-                        rs.getLong("id"),
-                        rs.getLong("customer_id"),
-                        rs.getLong("movie_id"),
-                        rs.getString("type"),
-                        rs.getDouble("base_price"),
-                        rs.getDouble("final_price")
-                ), id
-        );
+    // Column names come from the enum, never from the request
+    public List<TicketStatsResponse> aggregate(TicketGroupBy groupBy) {
+        String column = groupBy.column();
+        String sql = "SELECT " + column + "::text AS group_key, COUNT(*) AS ticket_count,"
+                + " SUM(base_price) AS base_total, SUM(final_price) AS final_total"
+                + " FROM tickets GROUP BY " + column + " ORDER BY " + column;
+        List<TicketStatsResponse> rows = read("aggregate", () -> jdbcTemplate.query(sql,
+                (rs, rowNum) -> new TicketStatsResponse(
+                        rs.getString("group_key"),
+                        rs.getLong("ticket_count"),
+                        rs.getDouble("base_total"),
+                        rs.getDouble("final_total")
+                )));
+        metrics.recordRows("aggregate", rows.size());
+        return rows;
     }
 
-    public TicketBase save(TicketBase ticket) {
+    // Every grouping in one scan and one snapshot, for loading the in-memory rollup
+    public Map<TicketGroupBy, List<TicketStatsResponse>> aggregateAll() {
         String sql = """
-                INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price)
-                VALUES (?, ?, ?, ?, ?)
-                RETURNING id
+                SELECT GROUPING(movie_id) AS no_movie, GROUPING(customer_id) AS no_customer,
+                       movie_id, customer_id, type,
+                       COUNT(*) AS ticket_count, SUM(base_price) AS base_total, SUM(final_price) AS final_total
+                FROM tickets
+                GROUP BY GROUPING SETS ((movie_id), (customer_id), (type))
                 """;
+        Map<TicketGroupBy, List<TicketStatsResponse>> totals = new EnumMap<>(TicketGroupBy.class);
+        for (TicketGroupBy groupBy : TicketGroupBy.values()) {
+            totals.put(groupBy, new ArrayList<>());
+        }
+        metrics.recordQuery("aggregateAll", () -> jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            TicketGroupBy groupBy;
+            String key;
+            if (rs.getInt("no_movie") == 0) {
+                groupBy = TicketGroupBy.MOVIE;
+                key = String.valueOf(rs.getLong("movie_id"));
+            } else if (rs.getInt("no_customer") == 0) {
+                groupBy = TicketGroupBy.CUSTOMER;
+                key = String.valueOf(rs.getLong("customer_id"));
+            } else {
+                groupBy = TicketGroupBy.TYPE;
+                key = rs.getString("type");
+            }
+            totals.get(groupBy).add(new TicketStatsResponse(
+                    key, rs.getLong("ticket_count"), rs.getDouble("base_total"), rs.getDouble("final_total")));
+        }));
+        return totals;
+    }
+
+    // Same cursor as streamAll but only (id, version): enough to diff a saved snapshot against the table
+    public void streamVersions(int fetchSize, IdVersionHandler handler) {
+        String sql = "SELECT id, version FROM tickets ORDER BY id";
+        int[] rows = new int[1];
+        metrics.recordQuery("streamVersions", () -> streamTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(
+                        con -> {
+                            PreparedStatement ps = con.prepareStatement(
+                                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                            ps.setFetchSize(fetchSize);
+                            return ps;
+                        },
+                        (RowCallbackHandler) rs -> {
+                            handler.accept(rs.getLong(1), rs.getLong(2));
+                            rows[0]++;
+                        }
+                )
+        ));
+        metrics.recordRows("streamVersions", rows[0]);
+    }
 
-        Long id = jdbcTemplate.queryForObject(
+    // COPY ... TO STDOUT straight into the caller's stream: rows never become Java objects.
+    // COPY takes no bind parameters, so the (Long-typed) bounds are inlined. Returns the row count.
+    public long export(TicketExportFormat format, long fromId, long toId, OutputStream out) {
+        String select = format == TicketExportFormat.NDJSON
+                ? "SELECT json_build_object('id', id, 'customerId', customer_id, 'movieId', movie_id,"
+                        + " 'type', type, 'basePrice', base_price, 'finalPrice', final_price,"
+                        + " 'version', version, 'updatedAt', updated_at, 'showtime', showtime)::text"
+                : "SELECT " + COLUMNS;
+        String sql = "COPY (" + select + " FROM tickets WHERE id BETWEEN " + fromId + " AND " + toId
+                + " ORDER BY id) TO STDOUT WITH (" + format.copyOptions() + ")";
+
+        long rows = read("export", () -> jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }));
+        metrics.recordRows("export", (int) Math.min(rows, Integer.MAX_VALUE));
+        return rows;
+    }
+
+    // COPY ... FROM STDIN into a staging table, then one set-based INSERT ... ON CONFLICT DO NOTHING.
+    // The staging table is per transaction (ON COMMIT DROP), so concurrent imports never see each other's rows.
+    // Within the import the first occurrence of a customer/movie/type key wins, and ids follow input order.
+    public ImportCounts importTickets(ImportSource source) {
+        ImportCounts counts = metrics.timeQuery("import", () -> writeTransaction.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<ImportCounts>) con -> {
+                    try (Statement st = con.createStatement()) {
+                        st.execute("""
+                                CREATE TEMP TABLE ticket_import (
+                                    line BIGINT NOT NULL,
+                                    customer_id BIGINT NOT NULL,
+                                    movie_id BIGINT NOT NULL,
+                                    type VARCHAR(50) NOT NULL,
+                                    base_price DOUBLE PRECISION NOT NULL,
+                                    final_price DOUBLE PRECISION NOT NULL,
+                                    showtime TIMESTAMPTZ
+                                ) ON COMMIT DROP
+                                """);
+                    }
+
+                    PGCopyOutputStream copy = new PGCopyOutputStream(con.unwrap(PGConnection.class),
+                            "COPY ticket_import (line, customer_id, movie_id, type, base_price, final_price, showtime)"
+                                    + " FROM STDIN WITH (FORMAT csv)",
+                            COPY_BUFFER_SIZE);
+                    long staged;
+                    try {
+                        source.writeTo(new ImportWriter(copy));
+                        staged = copy.endCopy();
+                    } catch (IOException | RuntimeException ex) {
+                        if (copy.isActive()) {
+                            copy.cancelCopy();
+                        }
+                        if (ex instanceof IOException io) {
+                            throw new UncheckedIOException(io);
+                        }
+                        throw (RuntimeException) ex;
+                    }
+
+                    try (Statement st = con.createStatement()) {
+                        long inserted = st.executeLargeUpdate("""
+                                INSERT INTO tickets (customer_id, movie_id, type, base_price, final_price, showtime)
+                                SELECT customer_id, movie_id, type, base_price, final_price, showtime
+                                FROM (
+                                    SELECT DISTINCT ON (customer_id, movie_id, type) *
+                                    FROM ticket_import
+                                    ORDER BY customer_id, movie_id, type, line
+                                ) first_rows
+                                ORDER BY line
+                                ON CONFLICT (customer_id, movie_id, type) DO NOTHING
+                                """);
+                        return new ImportCounts(staged, inserted);
+                    }
+                })));
+        ReplicaRouting.wrote();
+        metrics.recordRows("import", (int) Math.min(counts.inserted(), Integer.MAX_VALUE));
+        return counts;
+    }
+
+    // Empty on a miss; queryForObject would throw (and fill in a stack trace) for every unknown id
+    public Optional<TicketResponse> findById(Long id) {
+        String sql = "SELECT " + COLUMNS + " FROM tickets WHERE id = ?";
+        List<TicketResponse> rows = read("findById", () -> jdbcTemplate.query(sql, TICKET_ROW, id));
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    public List<TicketResponse> findAllById(Collection<Long> ids) {
+        String sql = "SELECT " + COLUMNS + " FROM tickets WHERE id = ANY(?) ORDER BY id";
+        Long[] values = ids.toArray(new Long[0]);
+        List<TicketResponse> rows = read("findAllById", () -> jdbcTemplate.query(
                 sql,
-                Long.class,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", values)),
+                TICKET_ROW
+        ));
+        metrics.recordRows("findAllById", rows.size());
+        return rows;
+    }
+
+    public TicketResponse save(TicketBase ticket) {
+        String sql = "INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price, showtime)"
+                + " VALUES (?, ?, ?, ?, ?, ?)"
+                + " ON CONFLICT (customer_id, movie_id, type) DO NOTHING"
+                + " RETURNING " + COLUMNS;
+
+        // uniqueness is enforced by ux_tickets_customer_movie_type, no row back means the key already exists
+        List<TicketResponse> saved = metrics.timeQuery("save", () -> jdbcTemplate.query(
+                sql,
+                TICKET_ROW,
                 ticket.getCustomerId(),
                 ticket.getMovieId(),
                 ticket.getType(),
                 ticket.getBasePrice(),
-                ticket.getFinalPrice()
-        );
+                ticket.getFinalPrice(),
+                timestamp(ticket.getShowtime())
+        ));
+        ReplicaRouting.wrote();
+        metrics.recordRows("save", saved.size());
 
-        if (id == null) {
-            throw new IllegalStateException("DB did not return id");
+        if (saved.isEmpty()) {
+            throw new DuplicateResourceException(DUPLICATE_MESSAGE);
         }
+        return saved.get(0);
+    }
 
-        return factory.createFromDb(
-                id,
-                ticket.getCustomerId(),
-                ticket.getMovieId(),
-                ticket.getType(),
-                ticket.getBasePrice(),
-                ticket.getFinalPrice()
-        );
+    // Inserts in multi-row INSERT ... RETURNING chunks inside one transaction.
+    // The result is aligned with the input; a null slot means the row already existed.
+    public List<TicketResponse> saveAll(List<TicketBase> tickets) {
+        List<TicketResponse> saved = metrics.timeQuery("saveAll", () -> writeTransaction.execute(status -> {
+            List<TicketResponse> result = new ArrayList<>(tickets.size());
+            for (int from = 0; from < tickets.size(); from += BATCH_CHUNK_SIZE) {
+                List<TicketBase> chunk = tickets.subList(from, Math.min(from + BATCH_CHUNK_SIZE, tickets.size()));
+                result.addAll(insertChunk(chunk));
+            }
+            return result;
+        }));
+        ReplicaRouting.wrote();
+        metrics.recordRows("saveAll", (int) saved.stream().filter(t -> t != null).count());
+        return saved;
+    }
+
+    private List<TicketResponse> insertChunk(List<TicketBase> chunk) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price, showtime) VALUES ");
+        Object[] args = new Object[chunk.size() * 6];
+        int i = 0;
+        for (TicketBase ticket : chunk) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+            args[i++] = ticket.getCustomerId();
+            args[i++] = ticket.getMovieId();
+            args[i++] = ticket.getType();
+            args[i++] = ticket.getBasePrice();
+            args[i++] = ticket.getFinalPrice();
+            args[i++] = timestamp(ticket.getShowtime());
+        }
+        sql.append(" ON CONFLICT (customer_id, movie_id, type) DO NOTHING RETURNING ").append(COLUMNS);
+
+        Map<TicketKey, TicketResponse> inserted = new HashMap<>();
+        for (TicketResponse row : jdbcTemplate.query(sql.toString(), TICKET_ROW, args)) {
+            inserted.put(new TicketKey(row.customerId(), row.movieId(), row.type()), row);
+        }
+
+        List<TicketResponse> saved = new ArrayList<>(chunk.size());
+        for (TicketBase ticket : chunk) {
+            saved.add(inserted.get(
+                    new TicketKey(ticket.getCustomerId(), ticket.getMovieId(), TicketType.of(ticket.getType()))));
+        }
+        return saved;
+    }
+
+    public UpdatedTicket update(Long id, TicketBase ticket) {
+        return update(id, ticket, null);
     }
 
-    public TicketBase update(Long id, TicketBase ticket) {
+    // One round trip: a missing id shows up as zero returned rows instead of a second SELECT.
+    // The CTE locks the row and hands back its previous values so callers can evict/adjust what it belonged to.
+    // With expectedVersion set the row is only changed if its version still matches (If-Match).
+    public UpdatedTicket update(Long id, TicketBase ticket, Long expectedVersion) {
         String sql = """
-                UPDATE tickets
-                SET customer_id = ?, movie_id = ?, type = ?, base_price = ?, final_price = ?
-                WHERE id = ?
+                WITH old AS (
+                    SELECT id, customer_id, movie_id, type, base_price, final_price, version
+                    FROM tickets WHERE id = ? FOR UPDATE
+                )
+                UPDATE tickets t
+                SET customer_id = ?, movie_id = ?, type = ?, base_price = ?, final_price = ?, showtime = ?,
+                    version = old.version + 1, updated_at = now()
+                FROM old
+                WHERE t.id = old.id
+                """ + (expectedVersion == null ? "" : "  AND old.version = ?\n") + """
+                RETURNING t.id, t.customer_id, t.movie_id, t.type, t.base_price, t.final_price,
+                          t.version, t.updated_at, t.showtime,
+                          old.customer_id AS previous_customer_id, old.movie_id AS previous_movie_id,
+                          old.type AS previous_type, old.base_price AS previous_base_price,
+                          old.final_price AS previous_final_price, old.version AS previous_version
                 """;
 
-        int updated = jdbcTemplate.update(
-                sql,
+        // Arrays.asList, not List.of: the showtime may be null
+        List<Object> args = new ArrayList<>(Arrays.asList(
+                id,
                 ticket.getCustomerId(),
                 ticket.getMovieId(),
                 ticket.getType(),
                 ticket.getBasePrice(),
                 ticket.getFinalPrice(),
-                id
-        );
+                timestamp(ticket.getShowtime())
+        ));
+        if (expectedVersion != null) {
+            args.add(expectedVersion);
+        }
+
+        List<UpdatedTicket> updated;
+        try {
+            updated = metrics.timeQuery("update", () -> jdbcTemplate.query(
+                    sql,
+                    // columns 1-9 are the new row, 10-15 the previous_* values
+                    (rs, rowNum) -> new UpdatedTicket(
+                            TICKET_ROW.mapRow(rs, rowNum),
+                            new TicketResponse(
+                                    rs.getLong(1),
+                                    rs.getLong(10),
+                                    rs.getLong(11),
+                                    TicketType.fromDb(rs.getString(12)),
+                                    rs.getDouble(13),
+                                    rs.getDouble(14),
+                                    rs.getLong(15),
+                                    null
+                            )
+                    ),
+                    args.toArray()
+            ));
+        } catch (DuplicateKeyException ex) {
+            throw new DuplicateResourceException(DUPLICATE_MESSAGE);
+        }
+
+        ReplicaRouting.wrote();
+        metrics.recordRows("update", updated.size());
+        if (updated.isEmpty()) {
+            // only a failed If-Match needs the extra lookup to tell "changed" from "gone"
+            if (expectedVersion != null && existsById(id)) {
+                throw new PreconditionFailedException("Ticket " + id + " was modified (expected version "
+                        + expectedVersion + ")");
+            }
+            throw new NotFoundException("Ticket not found: id=" + id);
+        }
+        return updated.get(0);
+    }
 
-        if (updated == 0) {
-            throw new EmptyResultDataAccessException(1);
+    private boolean existsById(Long id) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM tickets WHERE id = ?)";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, id));
+    }
+
+    // Returns the deleted row so callers know which customer/movie lists it was part of
+    public TicketResponse deleteById(Long id) {
+        String sql = "DELETE FROM tickets WHERE id = ? RETURNING " + COLUMNS;
+        List<TicketResponse> deleted = metrics.timeQuery("deleteById", () -> jdbcTemplate.query(sql, TICKET_ROW, id));
+        ReplicaRouting.wrote();
+        metrics.recordRows("deleteById", deleted.size());
+        if (deleted.isEmpty()) {
+            throw new NotFoundException("Ticket not found: id=" + id);
         }
+        return deleted.get(0);
+    }
+
+    // Served by a read replica when one is configured and nothing keeps this read on the primary
+    private <T> T read(String query, Supplier<T> call) {
+        return metrics.timeQuery(query, () -> ReplicaRouting.replica(call));
+    }
 
-        return findById(id);
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
     }
 
-    public void deleteById(Long id) {
-        String sql = "DELETE FROM tickets WHERE id = ?";
-        jdbcTemplate.update(sql, id);
+    private static Timestamp timestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
     }
+
+    @FunctionalInterface
+    public interface IdVersionHandler {
+        void accept(long id, long version);
+    }
+
+    // Feeds validated rows to importTickets while the COPY is open
+    @FunctionalInterface
+    public interface ImportSource {
+        void writeTo(ImportWriter writer) throws IOException;
+    }
+
+    // Formats rows as COPY csv; the type is trusted to be one of the known ticket types
+    public static final class ImportWriter {
+
+        private final OutputStream out;
+        private final StringBuilder row = new StringBuilder(96);
+        private long line;
+
+        private ImportWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(long customerId, long movieId, String type, double basePrice, double finalPrice,
+                          Instant showtime) throws IOException {
+            row.setLength(0);
+            row.append(++line).append(',')
+                    .append(customerId).append(',')
+                    .append(movieId).append(',')
+                    .append(type).append(',')
+                    .append(basePrice).append(',')
+                    .append(finalPrice).append(',');
+            // an empty unquoted field is NULL in COPY csv
+            if (showtime != null) {
+                row.append(showtime);
+            }
+            row.append('\n');
+            out.write(row.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    public record ImportCounts(long staged, long inserted) {}
+
+    public record UpdatedTicket(TicketResponse ticket, TicketResponse previous) {}
+
+    private record TicketKey(long customerId, long movieId, TicketType type) {}
 }
\ No newline at end of file
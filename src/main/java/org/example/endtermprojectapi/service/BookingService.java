@@ -0,0 +1,411 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.booking.SeatMap;
+import org.example.endtermprojectapi.booking.TimerWheel;
+import org.example.endtermprojectapi.cache.SingleFlight;
+import org.example.endtermprojectapi.dto.HoldRequest;
+import org.example.endtermprojectapi.dto.HoldResponse;
+import org.example.endtermprojectapi.dto.ShowingRequest;
+import org.example.endtermprojectapi.dto.ShowingResponse;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.exception.DuplicateResourceException;
+import org.example.endtermprojectapi.exception.HoldExpiredException;
+import org.example.endtermprojectapi.exception.InvalidInputException;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.example.endtermprojectapi.exception.SeatUnavailableException;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.example.endtermprojectapi.repository.SeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seat holds for a showing (one per movieId). Seats are claimed first in an in-memory bitmap, so a
+ * sold-out show turns requests away without touching the database, and only then written with a
+ * conditional insert that the seat_holds primary key makes safe across instances. A hold lives for
+ * hold-ttl: a timer wheel gives it back when it runs out, and a periodic sweep catches holds whose
+ * instance went away. Confirming turns the hold into one ticket for all of its seats (seat_holds.ticket_id
+ * records which), so a customer books a showing once: a second hold is refused while the first is live
+ * or once the customer has a ticket for the movie.
+ */
+@Service
+public class BookingService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
+    static final int MAX_SEATS_PER_SHOWING = 100_000;
+
+    private final SeatRepository repository;
+    private final TicketService ticketService;
+    private final Duration holdTtl;
+    private final long tickNanos;
+    private final long sweepIntervalNanos;
+    private final long refreshIntervalNanos;
+    private final int maxSeatsPerHold;
+
+    private final ConcurrentHashMap<Long, SeatMap> seatMaps = new ConcurrentHashMap<>();
+    private final SingleFlight<Long, SeatMap> loads = new SingleFlight<>();
+    private final TimerWheel<PendingHold> wheel;
+    private final ConcurrentHashMap<UUID, TimerWheel.Timeout<PendingHold>> timers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread expirer;
+
+    public BookingService(SeatRepository repository,
+                          TicketService ticketService,
+                          TicketMetrics metrics,
+                          @Value("${ticket.booking.hold-ttl:5m}") Duration holdTtl,
+                          @Value("${ticket.booking.tick:100ms}") Duration tick,
+                          @Value("${ticket.booking.wheel-size:512}") int wheelSize,
+                          @Value("${ticket.booking.sweep-interval:30s}") Duration sweepInterval,
+                          @Value("${ticket.booking.refresh-interval:30s}") Duration refreshInterval,
+                          @Value("${ticket.booking.max-seats-per-hold:10}") int maxSeatsPerHold) {
+        this.repository = repository;
+        this.ticketService = ticketService;
+        this.holdTtl = holdTtl;
+        this.tickNanos = tick.toNanos();
+        this.sweepIntervalNanos = sweepInterval.toNanos();
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.maxSeatsPerHold = maxSeatsPerHold;
+        this.wheel = new TimerWheel<>(tickNanos, wheelSize, System.nanoTime());
+        metrics.registry().gauge("ticket.booking.holds.pending", timers, ConcurrentHashMap::size);
+    }
+
+    // Creates the showing or changes its size; it cannot shrink below a held or sold seat
+    public ShowingResponse putShowing(Long movieId, ShowingRequest request) {
+        checkMovieId(movieId);
+        if (request == null || request.getSeats() == null
+                || request.getSeats() <= 0 || request.getSeats() > MAX_SEATS_PER_SHOWING) {
+            throw new InvalidInputException("seats must be between 1 and " + MAX_SEATS_PER_SHOWING);
+        }
+        if (!repository.upsertShowing(movieId, request.getSeats())) {
+            throw new SeatUnavailableException("Seats above " + request.getSeats() + " are held or sold");
+        }
+        seatMaps.remove(movieId);
+        return getShowing(movieId);
+    }
+
+    public ShowingResponse getShowing(Long movieId) {
+        checkMovieId(movieId);
+        SeatMap map = seatMap(movieId);
+        return new ShowingResponse(movieId, map.capacity(), map.available());
+    }
+
+    public HoldResponse hold(Long movieId, HoldRequest request) {
+        checkMovieId(movieId);
+        int[] wanted = checkHold(request);
+        SeatMap map = seatMap(movieId);
+
+        int[] seats = claim(map, wanted, request.getCount());
+        if (seats == null && map.loadedAtNanos() < System.nanoTime() - refreshIntervalNanos) {
+            // seats given back by other instances (or deleted tickets) only show up after a reload
+            map = reload(movieId, map);
+            seats = claim(map, wanted, request.getCount());
+        }
+        if (seats == null) {
+            throw new SeatUnavailableException(wanted == null
+                    ? "Fewer than " + request.getCount() + " seats left"
+                    : "Seats " + Arrays.toString(wanted) + " are not available");
+        }
+
+        UUID holdId = UUID.randomUUID();
+        Instant expiresAt;
+        try {
+            if (repository.hasBooking(movieId, request.getCustomerId())) {
+                throw new DuplicateResourceException("Customer " + request.getCustomerId()
+                        + " already has a booking for movie " + movieId);
+            }
+            expiresAt = repository.insertHold(movieId, seats, holdId, request.getCustomerId(), holdTtl);
+        } catch (RuntimeException ex) {
+            map.release(seats);
+            throw ex;
+        }
+        if (expiresAt == null) {
+            // another instance got there first: this map is out of date
+            map.release(seats);
+            seatMaps.remove(movieId, map);
+            throw new SeatUnavailableException("Seats " + Arrays.toString(seats) + " were just taken");
+        }
+
+        // one tick late, so the database already sees the hold as run out when the timer fires
+        PendingHold pending = new PendingHold(holdId, movieId);
+        timers.put(holdId, wheel.schedule(pending, System.nanoTime() + holdTtl.toNanos() + tickNanos));
+
+        return new HoldResponse(holdId.toString(), movieId, request.getCustomerId(),
+                Arrays.stream(seats).boxed().toList(), HoldResponse.HELD, expiresAt, null);
+    }
+
+    // Issues the ticket for a live hold. The hold supplies customer and movie; the body the rest.
+    public HoldResponse confirm(Long movieId, String holdId, TicketRequest request) {
+        checkMovieId(movieId);
+        UUID id = parseHoldId(holdId);
+        SeatRepository.HoldRow hold = repository.findHold(id);
+        if (hold == null || hold.movieId() != movieId) {
+            throw new NotFoundException("Hold not found: " + holdId);
+        }
+        if (SeatRepository.CONFIRMED.equals(hold.status())) {
+            throw new DuplicateResourceException("Hold already confirmed: " + holdId);
+        }
+        if (hold.expired()) {
+            throw new HoldExpiredException("Hold expired: " + holdId);
+        }
+        if (request == null) {
+            throw new InvalidInputException("ticket is required");
+        }
+        if ((request.getCustomerId() != null && request.getCustomerId() != hold.customerId())
+                || (request.getMovieId() != null && request.getMovieId() != hold.movieId())) {
+            throw new InvalidInputException("customerId and movieId must match the hold");
+        }
+        request.setCustomerId(hold.customerId());
+        request.setMovieId(hold.movieId());
+
+        TicketResponse ticket;
+        try {
+            ticket = ticketService.create(request);
+        } catch (DuplicateResourceException ex) {
+            // a second hold that slipped past the check in hold(): it can never be confirmed, so let it go
+            cancelTimer(id);
+            giveBack(movieId, repository.releaseHold(id, movieId));
+            throw ex;
+        }
+        int confirmed;
+        try {
+            confirmed = repository.confirmHold(id, ticket.id());
+        } catch (RuntimeException ex) {
+            takeBack(ticket, ex);
+            throw ex;
+        }
+        if (confirmed == 0) {
+            // ran out (or was released) between the check and the update
+            HoldExpiredException ex = new HoldExpiredException("Hold expired: " + holdId);
+            takeBack(ticket, ex);
+            throw ex;
+        }
+        cancelTimer(id);
+
+        return new HoldResponse(holdId, hold.movieId(), hold.customerId(), hold.seats(),
+                HoldResponse.CONFIRMED, null, ticket);
+    }
+
+    public void release(Long movieId, String holdId) {
+        checkMovieId(movieId);
+        UUID id = parseHoldId(holdId);
+        int[] seats = repository.releaseHold(id, movieId);
+        if (seats.length == 0) {
+            throw new NotFoundException("No active hold: " + holdId);
+        }
+        cancelTimer(id);
+        giveBack(movieId, seats);
+    }
+
+    public int pendingHolds() {
+        return timers.size();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        expirer = Thread.ofPlatform().name("seat-hold-expiry").daemon().start(this::expireLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        expirer.interrupt();
+        try {
+            expirer.join(Duration.ofSeconds(5).toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped after the web server, like the ingestion writer
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void expireLoop() {
+        long nextSweep = System.nanoTime() + sweepIntervalNanos;
+        while (running) {
+            try {
+                Thread.sleep(Duration.ofNanos(tickNanos));
+                for (PendingHold pending : wheel.advance(System.nanoTime())) {
+                    expire(pending);
+                }
+                if (System.nanoTime() - nextSweep >= 0) {
+                    nextSweep = System.nanoTime() + sweepIntervalNanos;
+                    sweep();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // the database may be briefly away; the sweep picks up whatever was missed
+                log.warn("Seat hold expiry failed: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void expire(PendingHold pending) {
+        timers.remove(pending.holdId());
+        int[] seats = repository.expireHold(pending.holdId());
+        if (seats.length > 0) {
+            giveBack(pending.movieId(), seats);
+            return;
+        }
+        SeatRepository.HoldRow hold = repository.findHold(pending.holdId());
+        if (hold != null && SeatRepository.HELD.equals(hold.status())) {
+            // not run out yet by the database clock: look again on the next tick
+            timers.put(pending.holdId(), wheel.schedule(pending, System.nanoTime() + tickNanos));
+        }
+    }
+
+    private void sweep() {
+        List<SeatRepository.SeatRef> swept = repository.sweepExpired();
+        for (SeatRepository.SeatRef ref : swept) {
+            giveBack(ref.movieId(), new int[] {ref.seat()});
+        }
+        if (!swept.isEmpty()) {
+            log.info("Swept {} expired seat holds", swept.size());
+        }
+    }
+
+    private void giveBack(long movieId, int[] seats) {
+        SeatMap map = seatMaps.get(movieId);
+        if (map == null) {
+            return;
+        }
+        int[] inRange = Arrays.stream(seats).filter(s -> s <= map.capacity()).toArray();
+        map.release(inRange);
+    }
+
+    // A ticket must not outlive a hold that was not confirmed
+    private void takeBack(TicketResponse ticket, RuntimeException cause) {
+        try {
+            ticketService.delete(ticket.id());
+        } catch (RuntimeException ex) {
+            cause.addSuppressed(ex);
+        }
+    }
+
+    private void cancelTimer(UUID holdId) {
+        TimerWheel.Timeout<PendingHold> timeout = timers.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private int[] claim(SeatMap map, int[] wanted, Integer count) {
+        if (wanted == null) {
+            return map.claimAny(count);
+        }
+        for (int seat : wanted) {
+            if (seat > map.capacity()) {
+                throw new InvalidInputException("seat must be between 1 and " + map.capacity());
+            }
+        }
+        return map.tryClaim(wanted) ? wanted : null;
+    }
+
+    private SeatMap seatMap(long movieId) {
+        SeatMap map = seatMaps.get(movieId);
+        return map != null ? map : reload(movieId, null);
+    }
+
+    // Concurrent reloads of one showing share a single query; a map someone else already replaced is kept
+    private SeatMap reload(long movieId, SeatMap stale) {
+        return loads.load(movieId, () -> {
+            SeatMap current = seatMaps.get(movieId);
+            if (current != null && current != stale) {
+                return current;
+            }
+            Integer capacity = repository.findCapacity(movieId);
+            if (capacity == null) {
+                seatMaps.remove(movieId);
+                throw new NotFoundException("No showing for movie " + movieId);
+            }
+            SeatMap loaded = new SeatMap(capacity);
+            for (int seat : repository.findTakenSeats(movieId)) {
+                if (seat <= capacity) {
+                    loaded.markTaken(seat);
+                }
+            }
+            seatMaps.put(movieId, loaded);
+            return loaded;
+        });
+    }
+
+    // Explicit seats (sorted, distinct) or null when the request asks for a count instead
+    private int[] checkHold(HoldRequest request) {
+        if (request == null) {
+            throw new InvalidInputException("hold is required");
+        }
+        if (request.getCustomerId() == null || request.getCustomerId() <= 0) {
+            throw new InvalidInputException("customerId must be > 0");
+        }
+        boolean bySeats = request.getSeats() != null && !request.getSeats().isEmpty();
+        if (bySeats == (request.getCount() != null)) {
+            throw new InvalidInputException("give either seats or count");
+        }
+        int size = bySeats ? request.getSeats().size() : request.getCount();
+        if (size <= 0 || size > maxSeatsPerHold) {
+            throw new InvalidInputException("a hold covers 1 to " + maxSeatsPerHold + " seats");
+        }
+        if (!bySeats) {
+            return null;
+        }
+        int[] seats = new int[size];
+        for (int i = 0; i < size; i++) {
+            Integer seat = request.getSeats().get(i);
+            if (seat == null || seat <= 0) {
+                throw new InvalidInputException("seat numbers must be > 0");
+            }
+            seats[i] = seat;
+        }
+        Arrays.sort(seats);
+        for (int i = 1; i < seats.length; i++) {
+            if (seats[i] == seats[i - 1]) {
+                throw new InvalidInputException("seat " + seats[i] + " is listed twice");
+            }
+        }
+        return seats;
+    }
+
+    private static void checkMovieId(Long movieId) {
+        if (movieId == null || movieId <= 0) {
+            throw new InvalidInputException("movieId must be > 0");
+        }
+    }
+
+    private static UUID parseHoldId(String holdId) {
+        try {
+            return UUID.fromString(holdId);
+        } catch (IllegalArgumentException ex) {
+            throw new NotFoundException("Hold not found: " + holdId);
+        }
+    }
+
+    private record PendingHold(UUID holdId, long movieId) {}
+}
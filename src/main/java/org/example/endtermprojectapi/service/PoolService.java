@@ -0,0 +1,51 @@
+package org.example.endtermprojectapi.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.example.endtermprojectapi.dto.PoolStatsResponse;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Service
+public class PoolService {
+
+    private final DataSource dataSource;
+
+    public PoolService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public PoolStatsResponse stats() {
+        HikariDataSource hikari = hikari();
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+
+        // the pool is started lazily on the first getConnection()
+        if (pool == null) {
+            return new PoolStatsResponse(hikari.getPoolName(), 0, 0, 0, 0,
+                    hikari.getMinimumIdle(), hikari.getMaximumPoolSize());
+        }
+
+        return new PoolStatsResponse(
+                hikari.getPoolName(),
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                hikari.getMinimumIdle(),
+                hikari.getMaximumPoolSize()
+        );
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot inspect connection pool", ex);
+        }
+        throw new IllegalStateException("DataSource is not a HikariCP pool: " + dataSource.getClass().getName());
+    }
+}
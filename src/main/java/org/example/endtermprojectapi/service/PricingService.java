@@ -0,0 +1,141 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.LongIntHashMap;
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.dto.PricingStatusResponse;
+import org.example.endtermprojectapi.dto.RepriceResponse;
+import org.example.endtermprojectapi.model.TicketBase;
+import org.example.endtermprojectapi.pricing.PriceTable;
+import org.example.endtermprojectapi.pricing.PricingRule;
+import org.example.endtermprojectapi.repository.PricingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Owns the compiled price table: every create/update prices against the current one, reload swaps it atomically
+@Service
+public class PricingService {
+
+    private static final int TIER_FETCH_SIZE = 10_000;
+
+    // one UPDATE per id range keeps each transaction (and its row locks) short
+    private static final int REPRICE_CHUNK = 50_000;
+
+    private final PricingRepository repository;
+    private final TicketCache cache;
+    private final TicketCacheCoherence coherence;
+    private final ZoneId zone;
+    private final AtomicReference<PriceTable> table = new AtomicReference<>();
+
+    public PricingService(PricingRepository repository,
+                          TicketCache cache,
+                          TicketCacheCoherence coherence,
+                          @Value("${ticket.pricing.zone:UTC}") String zone) {
+        ZoneId zoneId = ZoneId.of(zone).normalized();
+        // Postgres reads "+05:00" with the POSIX sign (west of UTC), so only region ids are unambiguous
+        if (zoneId instanceof ZoneOffset && !zoneId.equals(ZoneOffset.UTC)) {
+            throw new IllegalArgumentException("ticket.pricing.zone must be a region id such as Europe/Berlin: " + zone);
+        }
+        this.repository = repository;
+        this.cache = cache;
+        this.coherence = coherence;
+        this.zone = zoneId;
+        // another node reloaded (or repriced): pick up the same rules and tiers
+        coherence.onPricingReload(this::compile);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        compile();
+    }
+
+    public double finalPrice(TicketBase ticket) {
+        return finalPrice(ticket.getType(), ticket.getMovieId(), ticket.getCustomerId(),
+                ticket.getShowtime(), ticket.getBasePrice());
+    }
+
+    public double finalPrice(String type, long movieId, long customerId, Instant showtime, double basePrice) {
+        return current().finalPrice(type, movieId, customerId, showtime, basePrice);
+    }
+
+    // Swaps in the current rules here and tells the other nodes to do the same
+    public PricingStatusResponse reload() {
+        PricingStatusResponse status = compile();
+        coherence.publishPricingReload();
+        return status;
+    }
+
+    // Compiles a new table off to the side; readers keep using the old one until the swap
+    private synchronized PricingStatusResponse compile() {
+        List<PricingRule> rules = repository.findRules();
+        List<String> tiers = new ArrayList<>();
+        for (PricingRule rule : rules) {
+            if (rule.customerTier() != null && !tiers.contains(rule.customerTier())) {
+                tiers.add(rule.customerTier());
+            }
+        }
+        LongIntHashMap customerTiers = new LongIntHashMap(1024);
+        repository.streamCustomerTiers(tiers, TIER_FETCH_SIZE,
+                (customerId, tier) -> customerTiers.put(customerId, tiers.indexOf(tier) + 1));
+
+        PriceTable compiled = PriceTable.compile(rules, tiers, customerTiers, zone);
+        table.set(compiled);
+        return status(compiled);
+    }
+
+    public PricingStatusResponse status() {
+        return status(current());
+    }
+
+    // Applies the current rules to every stored ticket in set-based UPDATEs, then drops the caches
+    public RepriceResponse reprice() {
+        long started = System.nanoTime();
+        // the SQL reads pricing_rules directly; reloading first keeps new tickets priced the same way
+        PricingStatusResponse status = reload();
+
+        long maxId = repository.maxTicketId();
+        long updated = 0;
+        for (long after = 0; after < maxId; after += REPRICE_CHUNK) {
+            updated += repository.repriceRange(after, Math.min(after + REPRICE_CHUNK, maxId), sqlZone());
+        }
+
+        if (updated > 0) {
+            cache.invalidateAll();
+            coherence.publishResync();
+        }
+        return new RepriceResponse(updated, (System.nanoTime() - started) / 1_000_000, status);
+    }
+
+    // Long-running callers (the bulk import) take one table up front and price everything against it
+    public PriceTable current() {
+        PriceTable current = table.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = table.get();
+            if (current == null) {
+                compile();
+                current = table.get();
+            }
+            return current;
+        }
+    }
+
+    private String sqlZone() {
+        return zone.equals(ZoneOffset.UTC) ? "UTC" : zone.getId();
+    }
+
+    private PricingStatusResponse status(PriceTable t) {
+        return new PricingStatusResponse(t.ruleCount(), t.movieCount(), t.tierCount(), t.customerCount(),
+                sqlZone(), t.memoryBytes(), t.loadedAt());
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.config.ReplicaRouting;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.repository.TicketRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the per-JVM TicketCache coherent across instances through Postgres LISTEN/NOTIFY.
+ * Writes are buffered and published as one notification per flush interval:
+ * {@code <node>;<sequence>;<id>,<id>,...} (or {@code *} for "resync everything",
+ * {@code pricing} for "pricing rules were reloaded").
+ * A receiving node reloads the listed rows in one query and applies them to its cache.
+ * A gap in a node's sequence, or a (re)connect of the listener, means events may have been
+ * missed, so the whole local cache is cleared and the pricing rules are reloaded instead.
+ */
+@Component
+public class TicketCacheCoherence implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketCacheCoherence.class);
+
+    static final String CHANNEL = "ticket_cache";
+    private static final String RESYNC = "*";
+    private static final String PRICING = "pricing";
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_CHARS = 7_000;
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_BACKOFF_MILLIS = 1_000;
+
+    private final TicketCache cache;
+    private final TicketRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration flushInterval;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final ConcurrentLinkedQueue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean resyncPending;
+    private volatile boolean pricingReloadPending;
+    private final List<Runnable> pricingReloadListeners = new CopyOnWriteArrayList<>();
+
+    // only touched by the listener thread
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private ScheduledExecutorService flusher;
+    private Thread listener;
+
+    public TicketCacheCoherence(TicketCache cache,
+                                TicketRepository repository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${ticket.cache.coherence.enabled:false}") boolean enabled,
+                                @Value("${ticket.node-id:}") String nodeId,
+                                @Value("${ticket.cache.coherence.flush-interval:50ms}") Duration flushInterval,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password) {
+        this.cache = cache;
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : nodeId;
+        this.flushInterval = flushInterval;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    public void publish(Long id) {
+        if (running && id != null) {
+            pending.add(id);
+        }
+    }
+
+    // for bulk changes where listing every id is pointless
+    public void publishResync() {
+        if (running) {
+            resyncPending = true;
+        }
+    }
+
+    // Tells the other nodes to reload their pricing rules (and customer tiers)
+    public void publishPricingReload() {
+        if (running) {
+            pricingReloadPending = true;
+        }
+    }
+
+    // Runs on the listener thread when another node reloaded pricing, or when such a message may have been missed
+    public void onPricingReload(Runnable listener) {
+        pricingReloadListeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ticket-cache-notify");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+
+        listener = Thread.ofPlatform().daemon().name("ticket-cache-listen").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+            listener.interrupt();
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the ingestion queue has drained, so its writes still reach the other nodes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    void flush() {
+        List<String> bodies = new ArrayList<>();
+        if (pricingReloadPending) {
+            pricingReloadPending = false;
+            bodies.add(PRICING);
+        }
+        if (resyncPending) {
+            resyncPending = false;
+            pending.clear();
+            bodies.add(RESYNC);
+        } else {
+            Set<Long> ids = new LinkedHashSet<>();
+            Long id;
+            while ((id = pending.poll()) != null) {
+                ids.add(id);
+            }
+            StringBuilder body = new StringBuilder();
+            for (Long changed : ids) {
+                if (body.length() > MAX_PAYLOAD_CHARS) {
+                    bodies.add(body.toString());
+                    body.setLength(0);
+                }
+                if (!body.isEmpty()) body.append(',');
+                body.append(changed);
+            }
+            if (!body.isEmpty()) {
+                bodies.add(body.toString());
+            }
+        }
+
+        for (String body : bodies) {
+            // the sequence advances even if sending fails, so receivers see the gap and resync
+            String payload = nodeId + ";" + sequence.incrementAndGet() + ";" + body;
+            try {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> {}, CHANNEL, payload);
+            } catch (RuntimeException ex) {
+                log.warn("Could not publish cache invalidation: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // anything published while we were not listening is lost
+                lastSequenceByNode.clear();
+                resync("listener connected");
+                if (connectedBefore) {
+                    reloadPricing();
+                }
+                connectedBefore = true;
+                listening = true;
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        handle(notifications);
+                    }
+                }
+                listening = false;
+            } catch (SQLException | RuntimeException ex) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting: {}", ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_BACKOFF_MILLIS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(PGNotification[] notifications) {
+        Set<Long> changed = new HashSet<>();
+        boolean resync = false;
+        boolean pricing = false;
+
+        for (PGNotification notification : notifications) {
+            String[] parts = notification.getParameter().split(";", 3);
+            if (parts.length != 3 || parts[0].equals(nodeId)) {
+                continue;
+            }
+
+            long seq = Long.parseLong(parts[1]);
+            Long last = lastSequenceByNode.put(parts[0], seq);
+            if (last != null && seq != last + 1) {
+                resync = true;
+                pricing = true;
+            }
+
+            if (PRICING.equals(parts[2])) {
+                pricing = true;
+            } else if (RESYNC.equals(parts[2])) {
+                resync = true;
+            } else if (!resync) {
+                for (String id : parts[2].split(",")) {
+                    changed.add(Long.parseLong(id));
+                }
+            }
+        }
+
+        // another node wrote: until replicas have caught up, reads that refill the cache go to the primary
+        if (resync || !changed.isEmpty()) {
+            ReplicaRouting.wrote();
+        }
+        if (pricing) {
+            reloadPricing();
+        }
+        if (resync) {
+            resync("missed or bulk invalidation");
+        } else if (!changed.isEmpty()) {
+            refresh(changed);
+        }
+    }
+
+    private void reloadPricing() {
+        for (Runnable listener : pricingReloadListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                log.warn("Could not reload pricing after another node's change: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void refresh(Set<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (TicketResponse row : ReplicaRouting.primary(() -> repository.findAllById(ids))) {
+            missing.remove(row.id());
+            cache.applyUpsert(row);
+        }
+        missing.forEach(cache::applyRemove);
+        // the customer/movie a remote write moved a ticket out of is not known here
+        cache.invalidateGroups();
+    }
+
+    private void resync(String reason) {
+        log.info("Clearing ticket cache: {}", reason);
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.ColumnarTicketStore;
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.cache.TicketSnapshotFile;
+import org.example.endtermprojectapi.config.ReplicaRouting;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills TicketCache before the application reports ready: runners finish before readiness
+ * switches to ACCEPTING_TRAFFIC, so the first requests after a deploy already hit a warm cache.
+ * With a snapshot path set, the table is restored from the file written at the last shutdown
+ * and only rows whose id/version differ from the table are read back from Postgres.
+ */
+@Component
+public class TicketCacheWarmer implements ApplicationRunner, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketCacheWarmer.class);
+
+    private static final int FETCH_SIZE = 5_000;
+    private static final int FETCH_BY_ID_CHUNK = 1_000;
+    // a write landing mid-load voids the attempt; the retry only re-reads what changed
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TicketRepository repository;
+    private final TicketCache cache;
+    private final TicketCacheCoherence coherence;
+    private final boolean enabled;
+    private final int byIdEntries;
+    private final Path snapshotPath;
+    private final Duration listenerTimeout;
+
+    private volatile boolean running;
+
+    public TicketCacheWarmer(TicketRepository repository,
+                             TicketCache cache,
+                             TicketCacheCoherence coherence,
+                             @Value("${ticket.cache.warm-up.enabled:false}") boolean enabled,
+                             @Value("${ticket.cache.warm-up.by-id-entries:10000}") int byIdEntries,
+                             @Value("${ticket.cache.snapshot.path:}") String snapshotPath,
+                             @Value("${ticket.cache.warm-up.listener-timeout:10s}") Duration listenerTimeout) {
+        this.repository = repository;
+        this.cache = cache;
+        this.coherence = coherence;
+        this.enabled = enabled;
+        this.byIdEntries = byIdEntries;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.listenerTimeout = listenerTimeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        awaitListener();
+
+        long start = System.nanoTime();
+        List<TicketResponse> tickets = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long version = cache.version();
+            tickets = tickets == null ? initialLoad() : catchUp(tickets);
+            if (publish(tickets, version)) {
+                log.info("Ticket cache warmed with {} tickets in {} ms", tickets.size(),
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+                return;
+            }
+        }
+        log.warn("Ticket cache warm-up kept racing with writes, starting with a partially warm cache");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Saves what the cache holds (or the table) so the next start only has to catch up
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            List<TicketResponse> tickets = cachedTickets();
+            if (tickets == null) {
+                tickets = fullLoad();
+            }
+            long start = System.nanoTime();
+            TicketSnapshotFile.write(snapshotPath, tickets);
+            log.info("Wrote ticket snapshot with {} tickets to {} in {} ms", tickets.size(), snapshotPath,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write ticket snapshot to {}: {}", snapshotPath, ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped after the ingestion queue drained and before coherence and the DataSource go away
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 6144;
+    }
+
+    private List<TicketResponse> initialLoad() {
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                List<TicketResponse> restored = TicketSnapshotFile.read(snapshotPath);
+                log.info("Restored {} tickets from {}", restored.size(), snapshotPath);
+                return catchUp(restored);
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Ignoring ticket snapshot {}: {}", snapshotPath, ex.getMessage());
+            }
+        }
+        return fullLoad();
+    }
+
+    private List<TicketResponse> fullLoad() {
+        List<TicketResponse> tickets = new ArrayList<>();
+        repository.streamAll(FETCH_SIZE, tickets::add);
+        return tickets;
+    }
+
+    // Merge-joins the id-ordered snapshot with an id-ordered (id, version) scan of the table:
+    // equal versions are kept, deleted ids dropped, and only new or changed rows are fetched.
+    List<TicketResponse> catchUp(List<TicketResponse> snapshot) {
+        List<TicketResponse> merged = new ArrayList<>(snapshot.size());
+        List<Long> changed = new ArrayList<>();
+        int[] next = new int[1];
+
+        repository.streamVersions(FETCH_SIZE, (id, version) -> {
+            int i = next[0];
+            while (i < snapshot.size() && snapshot.get(i).id() < id) {
+                i++; // deleted since the snapshot
+            }
+            if (i < snapshot.size() && snapshot.get(i).id() == id) {
+                TicketResponse known = snapshot.get(i);
+                if (known.version() == version) {
+                    merged.add(known);
+                } else {
+                    merged.add(null);
+                    changed.add(id);
+                }
+                i++;
+            } else {
+                merged.add(null);
+                changed.add(id);
+            }
+            next[0] = i;
+        });
+
+        if (changed.isEmpty()) {
+            return merged;
+        }
+        List<TicketResponse> fetched = new ArrayList<>(changed.size());
+        for (int from = 0; from < changed.size(); from += FETCH_BY_ID_CHUNK) {
+            List<Long> chunk = changed.subList(from, Math.min(from + FETCH_BY_ID_CHUNK, changed.size()));
+            fetched.addAll(ReplicaRouting.refill(() -> repository.findAllById(chunk)));
+        }
+        log.info("Snapshot catch-up re-read {} changed tickets", fetched.size());
+
+        // placeholders and fetched rows are both in id order; a row deleted in between simply stays out
+        List<TicketResponse> result = new ArrayList<>(merged.size());
+        int c = 0;
+        int f = 0;
+        for (TicketResponse kept : merged) {
+            if (kept != null) {
+                result.add(kept);
+                continue;
+            }
+            long id = changed.get(c++);
+            if (f < fetched.size() && fetched.get(f).id() == id) {
+                result.add(fetched.get(f++));
+            }
+        }
+        return result;
+    }
+
+    // Puts the newest ids in the by-id cache and the whole list in the getAll() snapshot.
+    // False if a write raced with the load, since the loaded rows may predate it.
+    private boolean publish(List<TicketResponse> tickets, long version) {
+        for (int i = Math.max(0, tickets.size() - byIdEntries); i < tickets.size(); i++) {
+            TicketResponse ticket = tickets.get(i);
+            if (!cache.putById(ticket.id(), ticket, version)) {
+                return false;
+            }
+        }
+        if (cache.putAllTickets(tickets, version)) {
+            return true;
+        }
+        // unchanged version: the list is only over the all-tickets limit, the by-id part still counts
+        return cache.version() == version;
+    }
+
+    private List<TicketResponse> cachedTickets() {
+        List<TicketResponse> tickets = cache.getStaleAllTickets();
+        if (tickets != null) {
+            return tickets;
+        }
+        ColumnarTicketStore store = cache.readModel();
+        return store == null ? null : store.toList();
+    }
+
+    private void awaitListener() {
+        if (!coherence.isEnabled()) {
+            return;
+        }
+        // the listener clears the cache when it connects, so loading before that would be wasted
+        long deadline = System.nanoTime() + listenerTimeout.toNanos();
+        while (!coherence.isListening() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.dto.ImportResponse;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.exception.InvalidInputException;
+import org.example.endtermprojectapi.model.TicketExportFormat;
+import org.example.endtermprojectapi.pricing.PriceTable;
+import org.example.endtermprojectapi.repository.TicketRepository;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk load of historical tickets: the body is parsed line by line and each valid row goes
+ * straight into a Postgres COPY, so neither the payload nor the rows are held in memory.
+ * Duplicates are resolved by the database in one set-based merge.
+ */
+@Service
+public class TicketImportService {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    // column order of a CSV body without a header line; showtime is optional
+    private static final String[] DEFAULT_COLUMNS = {"customerid", "movieid", "type", "baseprice", "showtime"};
+    private static final int REQUIRED_COLUMNS = 4;
+
+    // how Postgres prints timestamptz (e.g. in our own CSV export): 2026-10-18 19:30:00+00
+    private static final DateTimeFormatter POSTGRES_TIMESTAMP = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .appendLiteral(' ')
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .appendOffset("+HH:mm", "+00")
+            .toFormatter();
+
+    private final TicketRepository repository;
+    private final TicketCache cache;
+    private final TicketCacheCoherence coherence;
+    private final PricingService pricing;
+    private final JsonMapper jsonMapper;
+
+    public TicketImportService(TicketRepository repository,
+                               TicketCache cache,
+                               TicketCacheCoherence coherence,
+                               PricingService pricing,
+                               JsonMapper jsonMapper) {
+        this.repository = repository;
+        this.cache = cache;
+        this.coherence = coherence;
+        this.pricing = pricing;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // An explicit ?format= wins over the Content-Type; anything unrecognised is read as CSV
+    public TicketExportFormat importFormat(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            switch (format.trim().toLowerCase(Locale.ROOT)) {
+                case "csv":
+                    return TicketExportFormat.CSV;
+                case "ndjson":
+                    return TicketExportFormat.NDJSON;
+                default:
+                    throw new InvalidInputException("format must be csv or ndjson");
+            }
+        }
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+            return TicketExportFormat.NDJSON;
+        }
+        return TicketExportFormat.CSV;
+    }
+
+    public ImportResponse importTickets(InputStream body, TicketExportFormat format) {
+        if (format != TicketExportFormat.CSV && format != TicketExportFormat.NDJSON) {
+            throw new InvalidInputException("format must be csv or ndjson");
+        }
+
+        // one table for the whole import, taken before the COPY holds the connection
+        LineParser parser = new LineParser(format, pricing.current());
+        TicketRepository.ImportCounts counts = repository.importTickets(writer -> {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                parser.accept(line, writer);
+            }
+        });
+
+        if (counts.inserted() > 0) {
+            // too many rows to patch in one by one: drop everything and let peers do the same
+            cache.invalidateAll();
+            coherence.publishResync();
+        }
+
+        return new ImportResponse(
+                parser.received,
+                counts.inserted(),
+                counts.staged() - counts.inserted(),
+                parser.invalid,
+                parser.errors
+        );
+    }
+
+    private final class LineParser {
+
+        private final TicketExportFormat format;
+        private final PriceTable prices;
+        private final List<String> errors = new ArrayList<>();
+        private long lineNumber;
+        private long received;
+        private long invalid;
+
+        // CSV column positions, resolved from the header line when there is one
+        private int[] columns;
+
+        private LineParser(TicketExportFormat format, PriceTable prices) {
+            this.format = format;
+            this.prices = prices;
+        }
+
+        private void accept(String line, TicketRepository.ImportWriter writer) throws IOException {
+            lineNumber++;
+            if (line.isBlank()) {
+                return;
+            }
+            if (format == TicketExportFormat.CSV && columns == null) {
+                String[] fields = line.split(",", -1);
+                if (isHeader(fields)) {
+                    columns = headerColumns(fields);
+                    return;
+                }
+                columns = new int[] {0, 1, 2, 3, 4};
+            }
+
+            received++;
+            try {
+                TicketRequest request = format == TicketExportFormat.CSV ? fromCsv(line) : fromJson(line);
+                String type = TicketService.validate(request).name();
+                double basePrice = request.getBasePrice();
+                double finalPrice = prices.finalPrice(type, request.getMovieId(), request.getCustomerId(),
+                        request.getShowtime(), basePrice);
+                writer.write(request.getCustomerId(), request.getMovieId(), type, basePrice, finalPrice,
+                        request.getShowtime());
+            } catch (InvalidInputException ex) {
+                invalid++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("line " + lineNumber + ": " + ex.getMessage());
+                }
+            }
+        }
+
+        private TicketRequest fromCsv(String line) {
+            String[] fields = line.split(",", -1);
+            TicketRequest request = new TicketRequest();
+            request.setCustomerId(parseLong(field(fields, columns[0]), "customerId"));
+            request.setMovieId(parseLong(field(fields, columns[1]), "movieId"));
+            request.setType(field(fields, columns[2]));
+            request.setBasePrice(parseDouble(field(fields, columns[3])));
+            request.setShowtime(parseInstant(field(fields, columns[4])));
+            return request;
+        }
+
+        private TicketRequest fromJson(String line) {
+            TicketRequest request;
+            try {
+                request = jsonMapper.readValue(line, TicketRequest.class);
+            } catch (JacksonException ex) {
+                throw new InvalidInputException("malformed JSON");
+            }
+            if (request == null) {
+                throw new InvalidInputException("ticket is required");
+            }
+            return request;
+        }
+
+        private int[] headerColumns(String[] header) {
+            int[] positions = new int[DEFAULT_COLUMNS.length];
+            for (int c = 0; c < DEFAULT_COLUMNS.length; c++) {
+                positions[c] = -1;
+                for (int i = 0; i < header.length; i++) {
+                    if (normalizeName(header[i]).equals(DEFAULT_COLUMNS[c])) {
+                        positions[c] = i;
+                        break;
+                    }
+                }
+                if (positions[c] < 0 && c < REQUIRED_COLUMNS) {
+                    throw new InvalidInputException("CSV header is missing column " + DEFAULT_COLUMNS[c]
+                            + " (expected customer_id, movie_id, type, base_price)");
+                }
+            }
+            return positions;
+        }
+    }
+
+    // A first line whose leading field is not a number is a header (our own export writes one)
+    private static boolean isHeader(String[] fields) {
+        String first = unquote(fields[0]);
+        if (first.isEmpty()) {
+            return false;
+        }
+        char c = first.charAt(0);
+        return !(Character.isDigit(c) || c == '-' || c == '+');
+    }
+
+    private static String normalizeName(String name) {
+        return unquote(name).replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    // Plain comma splitting: quotes around a value are dropped, quoted commas are not supported
+    private static String field(String[] fields, int index) {
+        return index >= 0 && index < fields.length ? unquote(fields[index]) : "";
+    }
+
+    private static String unquote(String value) {
+        String v = value.trim();
+        if (v.length() >= 2 && v.charAt(0) == '"' && v.charAt(v.length() - 1) == '"') {
+            v = v.substring(1, v.length() - 1).trim();
+        }
+        return v;
+    }
+
+    private static Long parseLong(String value, String name) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidInputException(name + " must be a number");
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return value.indexOf('T') > 0
+                    ? Instant.parse(value)
+                    : OffsetDateTime.parse(value, POSTGRES_TIMESTAMP).toInstant();
+        } catch (DateTimeParseException ex) {
+            throw new InvalidInputException("showtime must be an ISO-8601 instant");
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return value.isEmpty() ? 0 : Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidInputException("basePrice must be a number");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.BoundedCache;
+import org.example.endtermprojectapi.dto.BatchCreateResponse;
+import org.example.endtermprojectapi.dto.BatchItemResult;
+import org.example.endtermprojectapi.dto.IngestStatusResponse;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.exception.InvalidInputException;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.example.endtermprojectapi.exception.QueueFullException;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion for ticket creation spikes.
+ * Requests are validated, parked in a bounded ring buffer and acknowledged with a tracking id;
+ * a single writer thread drains whatever has accumulated into one createBatch call (group commit).
+ * A full buffer is rejected with 429 instead of queueing without bound, and on shutdown the
+ * writer finishes what was already accepted before the application context closes.
+ */
+@Component
+public class TicketIngestQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketIngestQueue.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final TicketService service;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final Duration drainTimeout;
+    private final ArrayBlockingQueue<Pending> queue;
+    private final BoundedCache<String, IngestStatusResponse> statuses;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public TicketIngestQueue(TicketService service,
+                             TicketMetrics metrics,
+                             @Value("${ticket.ingest.enabled:false}") boolean enabled,
+                             @Value("${ticket.ingest.capacity:10000}") int capacity,
+                             @Value("${ticket.ingest.max-batch:500}") int maxBatch,
+                             @Value("${ticket.ingest.drain-timeout:30s}") Duration drainTimeout,
+                             @Value("${ticket.ingest.status-ttl:10m}") Duration statusTtl,
+                             @Value("${ticket.ingest.status-max-entries:100000}") int statusMaxEntries) {
+        this.service = service;
+        this.enabled = enabled;
+        this.maxBatch = Math.min(maxBatch, TicketService.MAX_BATCH_SIZE);
+        this.drainTimeout = drainTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.statuses = new BoundedCache<>(statusMaxEntries, statusTtl, 16);
+        metrics.registry().gauge("ticket.ingest.queue.size", queue, ArrayBlockingQueue::size);
+    }
+
+    // Returns the QUEUED status with the tracking id; invalid input still fails synchronously with 400
+    public IngestStatusResponse submit(TicketRequest request) {
+        if (!enabled) {
+            throw new NotFoundException("Async ingestion is disabled");
+        }
+        if (request == null) {
+            throw new InvalidInputException("ticket is required");
+        }
+        TicketService.validate(request);
+        if (!accepting) {
+            throw new QueueFullException("Ingestion is shutting down, retry later");
+        }
+
+        String trackingId = UUID.randomUUID().toString();
+        IngestStatusResponse queued = new IngestStatusResponse(trackingId, IngestStatusResponse.QUEUED, null, null);
+        statuses.put(trackingId, queued);
+        if (!queue.offer(new Pending(trackingId, request))) {
+            statuses.invalidate(trackingId);
+            throw new QueueFullException("Ingestion queue is full, retry later");
+        }
+        return queued;
+    }
+
+    public IngestStatusResponse status(String trackingId) {
+        IngestStatusResponse status = statuses.get(trackingId);
+        if (status == null) {
+            throw new NotFoundException("Unknown or expired tracking id: " + trackingId);
+        }
+        return status;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        writer = Thread.ofPlatform().name("ticket-ingest-writer").start(this::drain);
+    }
+
+    // Stops taking new requests, then waits for the writer to empty the buffer
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        try {
+            writer.join(drainTimeout.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Ingestion queue not drained within {}, {} tickets left", drainTimeout, queue.size());
+            writer.interrupt();
+            return;
+        }
+        // a submit that raced with the flag flip can land after the writer's last poll
+        List<Pending> rest = new ArrayList<>(maxBatch);
+        while (queue.drainTo(rest, maxBatch) > 0) {
+            write(rest);
+            rest.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped after the web server (no new requests) and before cache coherence (so the writes still get published)
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<TicketRequest> requests = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            requests.add(pending.request());
+        }
+
+        BatchCreateResponse response;
+        try {
+            response = service.createBatch(requests);
+        } catch (RuntimeException ex) {
+            log.warn("Ingestion batch of {} failed: {}", batch.size(), ex.getMessage());
+            for (Pending pending : batch) {
+                statuses.put(pending.trackingId(), new IngestStatusResponse(
+                        pending.trackingId(), IngestStatusResponse.FAILED, null, ex.getMessage()));
+            }
+            return;
+        }
+
+        for (BatchItemResult result : response.getResults()) {
+            String trackingId = batch.get(result.getIndex()).trackingId();
+            statuses.put(trackingId, new IngestStatusResponse(
+                    trackingId, result.getStatus(), result.getTicket(), result.getMessage()));
+        }
+    }
+
+    private record Pending(String trackingId, TicketRequest request) {}
+}
@@ -1,57 +1,249 @@
 package org.example.endtermprojectapi.service;
 
+import org.example.endtermprojectapi.cache.ColumnarTicketStore;
+import org.example.endtermprojectapi.cache.SingleFlight;
 import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.cache.TicketCache.AllTickets;
+import org.example.endtermprojectapi.cache.TicketStatsRollup;
+import org.example.endtermprojectapi.config.ReplicaRouting;
+import org.example.endtermprojectapi.dto.BatchCreateResponse;
+import org.example.endtermprojectapi.dto.BatchItemResult;
+import org.example.endtermprojectapi.dto.CacheStatsResponse;
 import org.example.endtermprojectapi.dto.TicketRequest;
 import org.example.endtermprojectapi.dto.TicketResponse;
-import org.example.endtermprojectapi.exception.DuplicateResourceException;
+import org.example.endtermprojectapi.dto.TicketStatsResponse;
 import org.example.endtermprojectapi.exception.InvalidInputException;
 import org.example.endtermprojectapi.exception.NotFoundException;
 import org.example.endtermprojectapi.model.TicketBase;
+import org.example.endtermprojectapi.model.TicketExportFormat;
+import org.example.endtermprojectapi.model.TicketGroupBy;
+import org.example.endtermprojectapi.model.TicketType;
 import org.example.endtermprojectapi.patterns.builder.TicketBuilder;
 import org.example.endtermprojectapi.repository.TicketRepository;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class TicketService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // versions start at 0, so this never collides with a foreground load
+    private static final long BACKGROUND_REFRESH_KEY = -1L;
+
+    private static final int READ_MODEL_INITIAL_CAPACITY = 1 << 16;
+
     private final TicketRepository repository;
 
-    private final TicketCache cache = TicketCache.getInstance();
+    private final TicketCache cache;
+
+    private final TicketCacheCoherence coherence;
+
+    private final PricingService pricing;
+
+    // keyed by cache version, so a reader arriving after a write never joins a load that started before it
+    private final SingleFlight<Long, AllTickets> allTicketsLoads = new SingleFlight<>();
+    private final SingleFlight<ByIdLoad, Optional<TicketResponse>> byIdLoads = new SingleFlight<>();
+    private final Executor refreshExecutor;
+    private final boolean staleWhileRevalidate;
+    private final boolean columnarReadModel;
+    private final AtomicBoolean readModelLoading = new AtomicBoolean();
 
-    public TicketService(TicketRepository repository) {
+    public TicketService(TicketRepository repository,
+                         TicketCache cache,
+                         TicketCacheCoherence coherence,
+                         PricingService pricing,
+                         @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+                         @Value("${ticket.cache.stale-while-revalidate:false}") boolean staleWhileRevalidate,
+                         @Value("${ticket.read-model.columnar:false}") boolean columnarReadModel) {
         this.repository = repository;
+        this.cache = cache;
+        this.coherence = coherence;
+        this.pricing = pricing;
+        this.refreshExecutor = refreshExecutor;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.columnarReadModel = columnarReadModel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmReadModel() {
+        if (columnarReadModel) {
+            scheduleReadModelLoad();
+        }
     }
 
     public List<TicketResponse> getAll() {
-        List<TicketResponse> cached = cache.getAllTickets();
+        return getAllTagged().tickets();
+    }
+
+    // The list together with an ETag describing exactly that list, not whatever the cache holds by now.
+    // The node id keeps counters of different instances (or restarts) from colliding.
+    public TaggedTickets getAllTagged() {
+        AllTickets all = loadAll();
+        return new TaggedTickets(all.tickets(), coherence.nodeId() + "-" + all.version());
+    }
+
+    private AllTickets loadAll() {
+        // read before the rows: a list newer than its version only costs a needless 200, never a stale 304
+        long version = cache.version();
+        ColumnarTicketStore store = readModel();
+        if (store != null) {
+            return cache.readModelTickets(store, version);
+        }
+
+        AllTickets cached = cache.allTickets();
         if (cached != null) {
             return cached;
         }
 
-        List<TicketResponse> fresh = repository.findAll()
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        if (staleWhileRevalidate) {
+            AllTickets stale = cache.staleAllTickets();
+            if (stale != null) {
+                allTicketsLoads.loadAsync(BACKGROUND_REFRESH_KEY, () -> loadAllTickets(version), refreshExecutor);
+                return stale;
+            }
+        }
 
-        cache.putAllTickets(fresh);
-        return fresh;
+        return allTicketsLoads.load(version, () -> loadAllTickets(version));
+    }
+
+    // Keyset page: rows with id > afterId, so deep pages cost the same as the first one
+    public List<TicketResponse> getPage(Long afterId, Integer limit) {
+        long after = afterId == null ? 0L : afterId;
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+
+        if (after < 0) {
+            throw new InvalidInputException("afterId must be >= 0");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        return repository.findPage(after, size);
+    }
+
+    // Bypasses the cache on purpose: rows are handed to the consumer as the cursor reads them
+    public void streamAll(Consumer<TicketResponse> consumer) {
+        repository.streamAll(STREAM_FETCH_SIZE, consumer);
     }
 
     public TicketResponse getById(Long id) {
+        return findById(id).orElseThrow(() -> new NotFoundException("Ticket not found: id=" + id));
+    }
+
+    // Misses are answered without an exception on the way; recent ones do not reach the DB again
+    public Optional<TicketResponse> findById(Long id) {
+        ColumnarTicketStore store = readModel();
+        if (store != null) {
+            // the read model holds the whole table, so a miss is a 404 without asking the DB
+            return Optional.ofNullable(store.get(id));
+        }
+
         TicketResponse cached = cache.getById(id);
-        if (cached != null) return cached;
+        if (cached != null) return Optional.of(cached);
+        if (cache.isMissing(id)) return Optional.empty();
+
+        long version = cache.version();
+        return byIdLoads.load(new ByIdLoad(id, version), () -> loadById(id, version));
+    }
+
+    public List<TicketResponse> getByCustomer(Long customerId) {
+        if (customerId == null || customerId <= 0) {
+            throw new InvalidInputException("customerId must be > 0");
+        }
+        List<TicketResponse> cached = cache.getByCustomer(customerId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = cache.version();
+        List<TicketResponse> fresh = ReplicaRouting.refill(() -> repository.findByCustomerId(customerId));
+        cache.putByCustomer(customerId, fresh, version);
+        return fresh;
+    }
+
+    public List<TicketResponse> getByMovie(Long movieId) {
+        if (movieId == null || movieId <= 0) {
+            throw new InvalidInputException("movieId must be > 0");
+        }
+        List<TicketResponse> cached = cache.getByMovie(movieId);
+        if (cached != null) {
+            return cached;
+        }
 
+        long version = cache.version();
+        List<TicketResponse> fresh = ReplicaRouting.refill(() -> repository.findByMovieId(movieId));
+        cache.putByMovie(movieId, fresh, version);
+        return fresh;
+    }
+
+    public TicketExportFormat exportFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return TicketExportFormat.CSV;
+        }
         try {
-            TicketBase t = repository.findById(id);
-            TicketResponse resp = toResponse(t);
-            cache.putById(id, resp);
-            return resp;
-        } catch (EmptyResultDataAccessException ex) {
-            throw new NotFoundException("Ticket not found: id=" + id);
+            return TicketExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidInputException("format must be csv, ndjson or binary");
+        }
+    }
+
+    public void checkExportRange(Long fromId, Long toId) {
+        if ((fromId != null && fromId < 0) || (toId != null && toId < 0)) {
+            throw new InvalidInputException("fromId and toId must be >= 0");
+        }
+        if (fromId != null && toId != null && fromId > toId) {
+            throw new InvalidInputException("fromId must be <= toId");
+        }
+    }
+
+    // Bypasses the cache and the object mapping entirely; see TicketRepository.export
+    public long export(TicketExportFormat format, Long fromId, Long toId, OutputStream out) {
+        checkExportRange(fromId, toId);
+        return repository.export(format,
+                fromId == null ? 0L : fromId,
+                toId == null ? Long.MAX_VALUE : toId,
+                out);
+    }
+
+    // Count and price totals per movie, customer or type; from the in-memory rollup when it is enabled and loaded
+    public List<TicketStatsResponse> getStats(String groupBy) {
+        TicketGroupBy grouping = parseGroupBy(groupBy);
+
+        TicketStatsRollup rollup = cache.statsRollup();
+        if (rollup == null) {
+            return repository.aggregate(grouping);
+        }
+        List<TicketStatsResponse> rows = rollup.snapshot(grouping);
+        if (rows != null) {
+            return rows;
         }
+
+        long generation = rollup.generation();
+        rollup.load(repository.aggregateAll(), generation);
+        rows = rollup.snapshot(grouping);
+        // a write raced with the load; answer from SQL and try again next time
+        return rows != null ? rows : repository.aggregate(grouping);
     }
 
     public TicketResponse create(TicketRequest request) {
@@ -62,96 +254,237 @@ public class TicketService {
                 .movieId(request.getMovieId())
                 .type(request.getType())
                 .basePrice(request.getBasePrice())
+                .showtime(request.getShowtime())
                 .build();
+        model.setFinalPrice(pricing.finalPrice(model));
 
-        preventDuplicate(model, null);
-
-        TicketBase saved = repository.save(model);
-        TicketResponse resp = toResponse(saved);
+        TicketResponse resp = rollupWrite(() -> {
+            TicketResponse saved = repository.save(model);
+            addToRollup(saved);
+            return saved;
+        });
 
-        cache.invalidateAllTickets();
-        cache.putById(resp.getId(), resp);
+        cache.applyUpsert(resp);
+        coherence.publish(resp.id());
 
         return resp;
     }
 
+    // Validates every item up front, then inserts the valid ones in a single transaction.
+    // Invalid items and duplicates (within the batch or against the table) are reported, not thrown.
+    public BatchCreateResponse createBatch(List<TicketRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidInputException("batch must contain at least one ticket");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("batch must not contain more than " + MAX_BATCH_SIZE + " tickets");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<TicketBase> models = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        Set<String> keys = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TicketBase model;
+            try {
+                TicketRequest request = requests.get(i);
+                if (request == null) {
+                    throw new InvalidInputException("ticket is required");
+                }
+                validate(request);
+                model = new TicketBuilder()
+                        .customerId(request.getCustomerId())
+                        .movieId(request.getMovieId())
+                        .type(request.getType())
+                        .basePrice(request.getBasePrice())
+                        .showtime(request.getShowtime())
+                        .build();
+                model.setFinalPrice(pricing.finalPrice(model));
+            } catch (InvalidInputException ex) {
+                results[i] = BatchItemResult.rejected(i, BatchItemResult.INVALID, ex.getMessage());
+                continue;
+            }
+
+            String key = model.getCustomerId() + ":" + model.getMovieId() + ":" + model.getType();
+            if (!keys.add(key)) {
+                results[i] = BatchItemResult.rejected(i, BatchItemResult.DUPLICATE, "Duplicate ticket in batch");
+                continue;
+            }
+            models.add(model);
+            positions.add(i);
+        }
+
+        List<TicketResponse> saved = models.isEmpty() ? List.of() : rollupWrite(() -> {
+            List<TicketResponse> rows = repository.saveAll(models);
+            for (TicketResponse row : rows) {
+                if (row != null) {
+                    addToRollup(row);
+                }
+            }
+            return rows;
+        });
+
+        int created = 0;
+        for (int j = 0; j < saved.size(); j++) {
+            int i = positions.get(j);
+            TicketResponse resp = saved.get(j);
+            if (resp == null) {
+                results[i] = BatchItemResult.rejected(i, BatchItemResult.DUPLICATE,
+                        "Duplicate ticket for same customer/movie/type");
+                continue;
+            }
+            cache.applyUpsert(resp);
+            coherence.publish(resp.id());
+            results[i] = BatchItemResult.created(i, resp);
+            created++;
+        }
+
+        return new BatchCreateResponse(created, requests.size() - created, Arrays.asList(results));
+    }
+
     public TicketResponse update(Long id, TicketRequest request) {
+        return update(id, request, null);
+    }
+
+    // expectedVersion comes from If-Match; null updates unconditionally
+    public TicketResponse update(Long id, TicketRequest request, Long expectedVersion) {
         validate(request);
-        getById(id);
 
         TicketBase model = new TicketBuilder()
                 .customerId(request.getCustomerId())
                 .movieId(request.getMovieId())
                 .type(request.getType())
                 .basePrice(request.getBasePrice())
+                .showtime(request.getShowtime())
                 .build();
+        model.setFinalPrice(pricing.finalPrice(model));
+
+        TicketRepository.UpdatedTicket updated = rollupWrite(() -> {
+            TicketRepository.UpdatedTicket row = repository.update(id, model, expectedVersion);
+            TicketStatsRollup rollup = cache.statsRollup();
+            if (rollup != null) {
+                rollup.replace(row.previous(), row.ticket());
+            }
+            return row;
+        });
+        TicketResponse resp = updated.ticket();
+        TicketResponse previous = updated.previous();
 
-        preventDuplicate(model, id);
-
-        TicketBase updated = repository.update(id, model);
-        TicketResponse resp = toResponse(updated);
-
-        cache.invalidateAllTickets();
-        cache.invalidateById(id);
-        cache.putById(id, resp);
+        cache.applyUpsert(resp, previous.customerId(), previous.movieId());
+        coherence.publish(id);
 
         return resp;
     }
 
     public void delete(Long id) {
-        getById(id);
-        repository.deleteById(id);
+        TicketResponse deleted = rollupWrite(() -> {
+            TicketResponse row = repository.deleteById(id);
+            TicketStatsRollup rollup = cache.statsRollup();
+            if (rollup != null) {
+                rollup.remove(row);
+            }
+            return row;
+        });
+
+        cache.applyRemove(deleted);
+        coherence.publish(id);
+    }
 
-        cache.invalidateAllTickets();
-        cache.invalidateById(id);
+    public static String etag(TicketResponse ticket) {
+        return ticket.id() + "-" + ticket.version();
     }
 
     public void clearCache() {
         cache.clear();
     }
 
-    private void validate(TicketRequest req) {
-        if (req.getCustomerId() == null || req.getCustomerId() <= 0) {
-            throw new InvalidInputException("customerId must be > 0");
+    public CacheStatsResponse cacheStats() {
+        return cache.stats();
+    }
+
+    static TicketType validate(TicketRequest req) {
+        return TicketBuilder.validate(req.getCustomerId(), req.getMovieId(), req.getType(), req.getBasePrice());
+    }
+
+    private TicketGroupBy parseGroupBy(String groupBy) {
+        if (groupBy == null || groupBy.isBlank()) {
+            throw new InvalidInputException("groupBy is required (movie, customer or type)");
         }
-        if (req.getMovieId() == null || req.getMovieId() <= 0) {
-            throw new InvalidInputException("movieId must be > 0");
+        try {
+            return TicketGroupBy.valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidInputException("groupBy must be movie, customer or type");
+        }
+    }
+
+    // Keeps a stats load that overlaps the write (and the rollup update after it) from being published
+    private <T> T rollupWrite(Supplier<T> write) {
+        TicketStatsRollup rollup = cache.statsRollup();
+        if (rollup == null) {
+            return write.get();
         }
-        if (req.getType() == null || req.getType().isBlank()) {
-            throw new InvalidInputException("type is required (VIP or STANDARD)");
+        rollup.beginWrite();
+        try {
+            return write.get();
+        } finally {
+            rollup.endWrite();
         }
-        if (req.getBasePrice() <= 0) {
-            throw new InvalidInputException("basePrice must be > 0");
+    }
+
+    private void addToRollup(TicketResponse ticket) {
+        TicketStatsRollup rollup = cache.statsRollup();
+        if (rollup != null) {
+            rollup.add(ticket);
         }
     }
 
-    private void preventDuplicate(TicketBase model, Long excludeId) {
-        boolean exists = repository.findAll().stream().anyMatch(t -> {
-            boolean sameKey =
-                    t.getCustomerId().equals(model.getCustomerId()) &&
-                            t.getMovieId().equals(model.getMovieId()) &&
-                            t.getType() != null &&
-                            t.getType().equalsIgnoreCase(model.getType());
+    private AllTickets loadAllTickets(long version) {
+        List<TicketResponse> fresh = ReplicaRouting.refill(repository::findAll);
 
-            if (!sameKey) return false;
+        AllTickets published = cache.publishAllTickets(fresh, version);
+        return published != null ? published : new AllTickets(fresh, version);
+    }
 
-            if (excludeId == null) return true;
-            return t.getId() != null && !t.getId().equals(excludeId);
-        });
+    private Optional<TicketResponse> loadById(Long id, long version) {
+        Optional<TicketResponse> row = ReplicaRouting.refill(() -> repository.findById(id));
+        if (row.isEmpty()) {
+            cache.putMissing(id, version);
+        } else {
+            cache.putById(id, row.get(), version);
+        }
+        return row;
+    }
 
-        if (exists) {
-            throw new DuplicateResourceException("Duplicate ticket for same customer/movie/type");
+    // Null while disabled or (re)loading; reads fall back to the regular cache path meanwhile
+    private ColumnarTicketStore readModel() {
+        if (!columnarReadModel) {
+            return null;
+        }
+        ColumnarTicketStore store = cache.readModel();
+        if (store == null) {
+            scheduleReadModelLoad();
         }
+        return store;
     }
 
-    private TicketResponse toResponse(TicketBase t) {
-        return new TicketResponse(
-                t.getId(),
-                t.getCustomerId(),
-                t.getMovieId(),
-                t.getType(),
-                t.getBasePrice(),
-                t.getFinalPrice()
-        );
+    private void scheduleReadModelLoad() {
+        if (!readModelLoading.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                cache.beginReadModelLoad();
+                ColumnarTicketStore store = new ColumnarTicketStore(READ_MODEL_INITIAL_CAPACITY);
+                repository.streamAll(STREAM_FETCH_SIZE, store::upsert);
+                cache.finishReadModelLoad(store);
+            } finally {
+                readModelLoading.set(false);
+            }
+        });
     }
+
+    public record TaggedTickets(List<TicketResponse> tickets, String etag) {}
+
+    private record ByIdLoad(Long id, long version) {}
 }
\ No newline at end of file
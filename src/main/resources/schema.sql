@@ -5,4 +5,71 @@ CREATE TABLE IF NOT EXISTS tickets (
                                        type VARCHAR(50) NOT NULL,
     base_price DOUBLE PRECISION NOT NULL,
     final_price DOUBLE PRECISION NOT NULL
-    );
\ No newline at end of file
+    );
+
+-- row version for ETags / If-Match, bumped by every UPDATE
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+-- Tables from before the unique index may hold duplicates, which would make building it fail:
+-- keep the oldest ticket per key. Runs only while the index is missing. Once it exists the
+-- to_regclass check is a constant false and the statement does not touch the table.
+DELETE FROM tickets a
+    USING tickets b
+WHERE to_regclass('ux_tickets_customer_movie_type') IS NULL
+  AND a.customer_id = b.customer_id AND a.movie_id = b.movie_id AND a.type = b.type
+  AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_tickets_customer_movie_type
+    ON tickets (customer_id, movie_id, type);
+
+-- customer / movie lookups, ordered by id straight from the index
+CREATE INDEX IF NOT EXISTS ix_tickets_customer ON tickets (customer_id, id);
+CREATE INDEX IF NOT EXISTS ix_tickets_movie ON tickets (movie_id, id);
+
+-- optional show start, used by time-of-day pricing rules
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS showtime TIMESTAMPTZ;
+
+-- Pricing rules: final_price = base_price * multiplier + surcharge. NULL movie/tier means any;
+-- the showtime window is [from_hour, to_hour) in ticket.pricing.zone. The highest priority wins,
+-- then the most specific rule, then the newest. Without a matching rule VIP is 1.5x, STANDARD 1x.
+CREATE TABLE IF NOT EXISTS pricing_rules (
+    id BIGSERIAL PRIMARY KEY,
+    ticket_type VARCHAR(50) NOT NULL CHECK (ticket_type IN ('VIP', 'STANDARD')),
+    movie_id BIGINT,
+    customer_tier VARCHAR(50),
+    from_hour SMALLINT NOT NULL DEFAULT 0,
+    to_hour SMALLINT NOT NULL DEFAULT 24,
+    multiplier DOUBLE PRECISION NOT NULL DEFAULT 1,
+    surcharge DOUBLE PRECISION NOT NULL DEFAULT 0,
+    priority INT NOT NULL DEFAULT 0,
+    CHECK (from_hour >= 0 AND from_hour < to_hour AND to_hour <= 24)
+    );
+
+CREATE TABLE IF NOT EXISTS customer_tiers (
+    customer_id BIGINT PRIMARY KEY,
+    tier VARCHAR(50) NOT NULL
+    );
+
+-- Seat inventory per movie: one row per held or sold seat. The primary key is what rules out
+-- overselling, whatever the in-memory seat maps of the instances believe.
+CREATE TABLE IF NOT EXISTS showings (
+    movie_id BIGINT PRIMARY KEY,
+    seats INT NOT NULL CHECK (seats > 0)
+    );
+
+CREATE TABLE IF NOT EXISTS seat_holds (
+    movie_id BIGINT NOT NULL REFERENCES showings (movie_id) ON DELETE CASCADE,
+    seat INT NOT NULL,
+    hold_id UUID NOT NULL,
+    customer_id BIGINT NOT NULL,
+    status VARCHAR(16) NOT NULL CHECK (status IN ('HELD', 'CONFIRMED')),
+    -- NULL once confirmed
+    expires_at TIMESTAMPTZ,
+    -- deleting the ticket gives the seat back
+    ticket_id BIGINT REFERENCES tickets (id) ON DELETE CASCADE,
+    PRIMARY KEY (movie_id, seat)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_seat_holds_hold ON seat_holds (hold_id);
+CREATE INDEX IF NOT EXISTS ix_seat_holds_expiry ON seat_holds (expires_at) WHERE status = 'HELD';
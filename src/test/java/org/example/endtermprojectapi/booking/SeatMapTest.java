@@ -0,0 +1,82 @@
+package org.example.endtermprojectapi.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatMapTest {
+
+    @Test
+    void claimsAllSeatsOrNone() {
+        SeatMap map = new SeatMap(100);
+
+        assertTrue(map.tryClaim(new int[] {1, 64, 65}));
+        assertFalse(map.tryClaim(new int[] {2, 65, 3}));
+
+        // the failed claim left nothing behind
+        assertFalse(map.isTaken(2));
+        assertFalse(map.isTaken(3));
+        assertEquals(97, map.available());
+
+        map.release(new int[] {64, 65});
+        assertEquals(99, map.available());
+        assertTrue(map.tryClaim(new int[] {2, 65, 3}));
+    }
+
+    @Test
+    void claimAnyTakesTheLowestFreeSeats() {
+        SeatMap map = new SeatMap(70);
+        map.markTaken(1);
+        map.markTaken(3);
+
+        assertArrayEquals(new int[] {2, 4, 5}, map.claimAny(3));
+        assertEquals(65, map.available());
+        assertNull(map.claimAny(66));
+        assertEquals(65, map.claimAny(65).length);
+        assertEquals(0, map.available());
+        assertNull(map.claimAny(1));
+    }
+
+    @Test
+    void concurrentClaimsNeverHandOutASeatTwice() throws Exception {
+        int seats = 300;
+        SeatMap map = new SeatMap(seats);
+        AtomicIntegerArray owners = new AtomicIntegerArray(seats + 1);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                int count = 1 + i % 3;
+                pool.submit(() -> {
+                    start.await();
+                    int[] claimed = map.claimAny(count);
+                    if (claimed != null) {
+                        granted.addAndGet(claimed.length);
+                        for (int seat : claimed) {
+                            owners.incrementAndGet(seat);
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        for (int seat = 1; seat <= seats; seat++) {
+            assertEquals(1, owners.get(seat), "seat " + seat);
+        }
+        assertEquals(seats, granted.get());
+        assertEquals(0, map.available());
+    }
+}
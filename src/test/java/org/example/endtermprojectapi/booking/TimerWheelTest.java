@@ -0,0 +1,59 @@
+package org.example.endtermprojectapi.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void firesEntriesOnceTheirDeadlineHasPassed() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 40);
+
+        assertTrue(wheel.advance(20).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(List.of("b"), wheel.advance(45));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void keepsEntriesFurtherOutThanOneRevolution() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        // shares a bucket with tick 1, but is due 8 ticks later
+        wheel.schedule("late", 90);
+        wheel.schedule("early", 10);
+
+        assertEquals(List.of("early"), wheel.advance(15));
+        assertTrue(wheel.advance(80).isEmpty());
+        assertEquals(List.of("late"), wheel.advance(90));
+    }
+
+    @Test
+    void cancelledEntriesNeverFire() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        TimerWheel.Timeout<String> timeout = wheel.schedule("a", 20);
+        wheel.schedule("b", 20);
+
+        timeout.cancel();
+        assertEquals(List.of("b"), wheel.advance(20));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void catchesUpAfterAStall() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, 8, 0);
+        for (int i = 1; i <= 30; i++) {
+            wheel.schedule(i, i * TICK);
+        }
+
+        assertEquals(30, wheel.advance(1_000).size());
+        assertEquals(0, wheel.size());
+    }
+}
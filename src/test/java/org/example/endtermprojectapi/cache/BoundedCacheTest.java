@@ -0,0 +1,51 @@
+package org.example.endtermprojectapi.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(2, Duration.ZERO, 1);
+
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        cache.get(1L);
+        cache.put(3L, "c");
+
+        assertEquals("a", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("c", cache.get(3L));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMillis(20), 4);
+
+        cache.put(1L, "a");
+        Thread.sleep(40);
+
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.expirationCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ZERO, 4);
+
+        cache.put(1L, "a");
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+}
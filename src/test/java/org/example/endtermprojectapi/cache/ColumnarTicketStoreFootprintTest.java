@@ -0,0 +1,74 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Retained heap of the object cache (getAll list + by-id map) versus the columnar store
+@Tag("benchmark")
+class ColumnarTicketStoreFootprintTest {
+
+    // rough upper bound for the object layout, used to skip sizes the heap cannot hold
+    private static final long OBJECT_BYTES_PER_TICKET = 250;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000_000, 10_000_000})
+    void footprint(int tickets) {
+        assumeTrue(Runtime.getRuntime().maxMemory() > tickets * OBJECT_BYTES_PER_TICKET * 2,
+                "heap too small for " + tickets + " tickets, raise benchmarkTest maxHeapSize");
+
+        long baseline = usedHeap();
+        List<TicketResponse> list = new ArrayList<>(tickets);
+        Map<Long, TicketResponse> byId = new HashMap<>();
+        for (long id = 1; id <= tickets; id++) {
+            TicketResponse ticket = ticket(id);
+            list.add(ticket);
+            byId.put(ticket.id(), ticket);
+        }
+        long objectBytes = usedHeap() - baseline;
+        assertEquals(tickets, list.size());
+        assertEquals(tickets, byId.size());
+        list = null;
+        byId = null;
+
+        baseline = usedHeap();
+        ColumnarTicketStore store = new ColumnarTicketStore(tickets);
+        for (long id = 1; id <= tickets; id++) {
+            store.upsert(ticket(id));
+        }
+        long columnarBytes = usedHeap() - baseline;
+        assertEquals(tickets, store.size());
+
+        System.out.printf("%,d tickets: objects %,d MB (%d B/ticket), columnar %,d MB (%d B/ticket, arrays %,d MB)%n",
+                tickets,
+                objectBytes >> 20, objectBytes / tickets,
+                columnarBytes >> 20, columnarBytes / tickets,
+                store.memoryBytes() >> 20);
+        assertTrue(columnarBytes < objectBytes / 2);
+    }
+
+    private static TicketResponse ticket(long id) {
+        double base = 10.0 + id % 50;
+        return new TicketResponse(id, 1_000L + id % 100_000, 1L + id % 500,
+                id % 4 == 0 ? TicketType.VIP : TicketType.STANDARD, base, id % 4 == 0 ? base * 1.5 : base);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColumnarTicketStoreTest {
+
+    @Test
+    void matchesSortedMapUnderRandomWrites() {
+        Random random = new Random(7);
+        TreeMap<Long, TicketResponse> expected = new TreeMap<>();
+        ColumnarTicketStore store = new ColumnarTicketStore(16);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id) != null, store.remove(id));
+            } else {
+                TicketResponse ticket = ticket(id, random.nextBoolean() ? TicketType.VIP : TicketType.STANDARD);
+                store.upsert(ticket);
+                expected.put(id, ticket);
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        assertEquals(ids(List.copyOf(expected.values())), ids(store.toList()));
+        for (long id = 1; id <= 5_000; id++) {
+            TicketResponse want = expected.get(id);
+            TicketResponse got = store.get(id);
+            if (want == null) {
+                assertNull(got);
+            } else {
+                assertEquals(want.type(), got.type());
+                assertEquals(want.finalPrice(), got.finalPrice());
+            }
+        }
+    }
+
+    @Test
+    void lookupsStillWorkAfterCompaction() {
+        ColumnarTicketStore store = new ColumnarTicketStore(16);
+        for (long id = 1; id <= 10_000; id++) {
+            store.upsert(ticket(id, TicketType.STANDARD));
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            store.remove(id);
+        }
+
+        assertEquals(5_000, store.size());
+        assertNull(store.get(9_999));
+        assertEquals(10_000L, store.get(10_000).id());
+        assertEquals(2L, store.toList().get(0).id());
+    }
+
+    @Test
+    void longIntHashMapMatchesBackwardShiftRemoval() {
+        Random random = new Random(11);
+        java.util.HashMap<Long, Integer> expected = new java.util.HashMap<>();
+        LongIntHashMap map = new LongIntHashMap(4);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                Integer old = expected.remove(key);
+                assertEquals(old == null ? LongIntHashMap.MISSING : old, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.get(key));
+        }
+    }
+
+    private static List<Long> ids(List<TicketResponse> tickets) {
+        return tickets.stream().map(TicketResponse::id).toList();
+    }
+
+    private static TicketResponse ticket(long id, TicketType type) {
+        double base = 10.0 + id % 50;
+        return new TicketResponse(id, 10L + id % 7, 100L + id % 13, type, base,
+                type == TicketType.VIP ? base * 1.5 : base);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TicketCacheAllTicketsTest {
+
+    private final TicketCache cache = TicketCache.newInstance();
+
+    @Test
+    void everyPublishedListHasItsOwnVersion() {
+        TicketCache.AllTickets loaded = cache.publishAllTickets(List.of(ticket(1)), cache.version());
+        assertNotNull(loaded);
+        assertEquals(loaded, cache.allTickets());
+
+        cache.applyUpsert(ticket(2));
+        TicketCache.AllTickets written = cache.allTickets();
+        assertEquals(2, written.tickets().size());
+        assertNotEquals(loaded.version(), written.version());
+
+        // only the counter moves: the list and the version it is served under stay together
+        cache.invalidateById(1L);
+        assertEquals(written, cache.allTickets());
+
+        cache.markAllTicketsStale();
+        assertNull(cache.allTickets());
+        assertEquals(written, cache.staleAllTickets());
+    }
+
+    @Test
+    void listReloadedAfterTheTtlGetsANewVersion() throws InterruptedException {
+        cache.configure(100, Duration.ofMillis(20), 1, 100);
+        TicketCache.AllTickets first = cache.publishAllTickets(List.of(ticket(1)), cache.version());
+
+        Thread.sleep(40);
+        assertNull(cache.allTickets());
+        // e.g. a row another instance wrote without telling this one
+        TicketCache.AllTickets reloaded = cache.publishAllTickets(List.of(ticket(1), ticket(2)), cache.version());
+        assertNotEquals(first.version(), reloaded.version());
+    }
+
+    @Test
+    void bulkInvalidationKeepsTheListForStaleReadersOnly() {
+        TicketCache.AllTickets loaded = cache.publishAllTickets(List.of(ticket(1)), cache.version());
+        cache.putById(1L, ticket(1));
+        long version = cache.version();
+
+        cache.invalidateAll();
+
+        assertNull(cache.allTickets());
+        assertNull(cache.getById(1L));
+        assertEquals(loaded, cache.staleAllTickets());
+        // a reload that started before the invalidation must not replace the stale list
+        assertNull(cache.publishAllTickets(List.of(), version));
+    }
+
+    @Test
+    void readModelListIsBuiltOncePerVersion() {
+        ColumnarTicketStore store = new ColumnarTicketStore(16);
+        store.upsert(ticket(1));
+        cache.beginReadModelLoad();
+        cache.finishReadModelLoad(store);
+
+        TicketCache.AllTickets first = cache.readModelTickets(store, cache.version());
+        assertSame(first, cache.readModelTickets(store, cache.version()));
+
+        cache.applyUpsert(ticket(2));
+        TicketCache.AllTickets written = cache.readModelTickets(store, cache.version());
+        assertEquals(2, written.tickets().size());
+        assertNotEquals(first.version(), written.version());
+    }
+
+    @Test
+    void readModelListOverTheLimitIsNotKept() {
+        cache.configure(100, Duration.ofMinutes(1), 1, 1);
+        ColumnarTicketStore store = new ColumnarTicketStore(16);
+        store.upsert(ticket(1));
+        store.upsert(ticket(2));
+        cache.beginReadModelLoad();
+        cache.finishReadModelLoad(store);
+
+        long version = cache.version();
+        assertNotSame(cache.readModelTickets(store, version), cache.readModelTickets(store, version));
+    }
+
+    @Test
+    void writesAppliedOutOfOrderKeepTheNewestVersion() {
+        ColumnarTicketStore store = loadedReadModel();
+        cache.publishAllTickets(List.of(ticket(1)), cache.version());
+
+        cache.applyUpsert(ticket(1, 3, 90.0));
+        cache.applyUpsert(ticket(1, 2, 70.0));
+
+        assertEquals(3, cache.getById(1L).version());
+        assertEquals(3, cache.allTickets().tickets().get(0).version());
+        assertEquals(3, store.get(1L).version());
+    }
+
+    @Test
+    void updateAppliedAfterTheDeleteDoesNotBringTheTicketBack() {
+        ColumnarTicketStore store = loadedReadModel();
+        cache.publishAllTickets(List.of(ticket(1)), cache.version());
+
+        cache.applyRemove(1L);
+        cache.applyUpsert(ticket(1, 2, 70.0));
+
+        assertNull(cache.getById(1L));
+        assertEquals(List.of(), cache.allTickets().tickets());
+        assertNull(store.get(1L));
+    }
+
+    private ColumnarTicketStore loadedReadModel() {
+        ColumnarTicketStore store = new ColumnarTicketStore(16);
+        store.upsert(ticket(1));
+        cache.beginReadModelLoad();
+        cache.finishReadModelLoad(store);
+        return store;
+    }
+
+    private static TicketResponse ticket(long id) {
+        return new TicketResponse(id, 1L, 10L, TicketType.STANDARD, 50.0, 50.0);
+    }
+
+    private static TicketResponse ticket(long id, long version, double price) {
+        return new TicketResponse(id, 1L, 10L, TicketType.STANDARD, price, price, version, null);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TicketCacheGroupsTest {
+
+    private final TicketCache cache = TicketCache.newInstance();
+
+    @BeforeEach
+    void setUp() {
+        cache.configureGroups(1000, Duration.ofMinutes(1), 4);
+        long version = cache.version();
+        cache.putByCustomer(1L, List.of(ticket(1, 1L, 10L)), version);
+        cache.putByCustomer(2L, List.of(ticket(2, 2L, 20L)), version);
+        cache.putByMovie(10L, List.of(ticket(1, 1L, 10L)), version);
+        cache.putByMovie(20L, List.of(ticket(2, 2L, 20L)), version);
+    }
+
+    @Test
+    void updateEvictsOldAndNewListsOnly() {
+        // ticket 1 moves from customer 1 / movie 10 to customer 3 / movie 30
+        cache.applyUpsert(ticket(1, 3L, 30L), 1L, 10L);
+
+        assertNull(cache.getByCustomer(1L));
+        assertNull(cache.getByMovie(10L));
+        assertNotNull(cache.getByCustomer(2L));
+        assertNotNull(cache.getByMovie(20L));
+    }
+
+    @Test
+    void deleteEvictsTheRowsLists() {
+        cache.applyRemove(ticket(2, 2L, 20L));
+
+        assertNull(cache.getByCustomer(2L));
+        assertNull(cache.getByMovie(20L));
+        assertNotNull(cache.getByCustomer(1L));
+    }
+
+    @Test
+    void loadThatRacedWithAWriteIsNotCached() {
+        long version = cache.version();
+        cache.applyUpsert(ticket(5, 4L, 40L));
+
+        assertFalse(cache.putByCustomer(4L, List.of(), version));
+        assertNull(cache.getByCustomer(4L));
+    }
+
+    private static TicketResponse ticket(long id, long customerId, long movieId) {
+        return new TicketResponse(id, customerId, movieId, TicketType.STANDARD, 50.0, 50.0);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TicketSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryColumn() throws IOException {
+        Instant now = Instant.parse("2026-03-01T12:00:00.123456Z");
+        List<TicketResponse> tickets = new ArrayList<>();
+        for (long id = 1; id <= 50_000; id++) {
+            boolean vip = id % 3 == 0;
+            tickets.add(new TicketResponse(id, 1_000 + id, 100 + id % 7, vip ? TicketType.VIP : TicketType.STANDARD,
+                    20.0 + id % 10, vip ? 30.0 + id % 10 * 1.5 : 20.0 + id % 10, id % 5, id == 2 ? null : now,
+                    id % 2 == 0 ? null : now.plusSeconds(id * 60)));
+        }
+        Path file = dir.resolve("tickets.snap");
+
+        TicketSnapshotFile.write(file, tickets);
+        List<TicketResponse> read = TicketSnapshotFile.read(file);
+
+        assertEquals(tickets.size(), read.size());
+        for (int i = 0; i < tickets.size(); i++) {
+            TicketResponse want = tickets.get(i);
+            TicketResponse got = read.get(i);
+            assertEquals(want.id(), got.id());
+            assertEquals(want.customerId(), got.customerId());
+            assertEquals(want.type(), got.type());
+            assertEquals(want.finalPrice(), got.finalPrice());
+            assertEquals(want.version(), got.version());
+            assertEquals(want.updatedAt(), got.updatedAt());
+            assertEquals(want.showtime(), got.showtime());
+        }
+    }
+
+    @Test
+    void rejectsATruncatedFile() throws IOException {
+        Path file = dir.resolve("tickets.snap");
+        TicketSnapshotFile.write(file, List.of(new TicketResponse(1L, 2L, 3L, TicketType.VIP, 10.0, 15.0)));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 5));
+
+        assertThrows(IOException.class, () -> TicketSnapshotFile.read(file));
+    }
+}
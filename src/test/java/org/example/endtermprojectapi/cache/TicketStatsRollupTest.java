@@ -0,0 +1,79 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.dto.TicketStatsResponse;
+import org.example.endtermprojectapi.model.TicketGroupBy;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketStatsRollupTest {
+
+    @Test
+    void writesAdjustTheLoadedTotals() {
+        TicketStatsRollup rollup = new TicketStatsRollup();
+        rollup.load(Map.of(
+                TicketGroupBy.MOVIE, List.of(new TicketStatsResponse("10", 2, 200.0, 250.0)),
+                TicketGroupBy.TYPE, List.of(new TicketStatsResponse("STANDARD", 2, 200.0, 250.0))
+        ), rollup.generation());
+
+        TicketResponse vip = new TicketResponse(3L, 1L, 10L, TicketType.VIP, 100.0, 150.0);
+        rollup.add(vip);
+        rollup.replace(vip, new TicketResponse(3L, 1L, 20L, TicketType.VIP, 100.0, 150.0));
+
+        List<TicketStatsResponse> byMovie = rollup.snapshot(TicketGroupBy.MOVIE);
+        assertEquals(List.of("10", "20"), byMovie.stream().map(TicketStatsResponse::getKey).toList());
+        assertEquals(2, byMovie.get(0).getCount());
+        assertEquals(150.0, byMovie.get(1).getTotalFinalPrice());
+
+        rollup.remove(new TicketResponse(3L, 1L, 20L, TicketType.VIP, 100.0, 150.0));
+        assertEquals(1, rollup.snapshot(TicketGroupBy.MOVIE).size());
+        assertEquals(List.of("STANDARD"),
+                rollup.snapshot(TicketGroupBy.TYPE).stream().map(TicketStatsResponse::getKey).toList());
+    }
+
+    @Test
+    void loadThatRacedWithAWriteIsDropped() {
+        TicketStatsRollup rollup = new TicketStatsRollup();
+        long generation = rollup.generation();
+        rollup.add(new TicketResponse(1L, 1L, 10L, TicketType.STANDARD, 100.0, 100.0));
+
+        assertFalse(rollup.load(Map.of(), generation));
+        assertNull(rollup.snapshot(TicketGroupBy.MOVIE));
+    }
+
+    @Test
+    void loadBetweenACommitAndItsAddDoesNotCountTheRowTwice() {
+        TicketStatsRollup rollup = new TicketStatsRollup();
+        TicketResponse ticket = new TicketResponse(1L, 1L, 10L, TicketType.STANDARD, 100.0, 100.0);
+        Map<TicketGroupBy, List<TicketStatsResponse>> withTicket =
+                Map.of(TicketGroupBy.MOVIE, List.of(new TicketStatsResponse("10", 1, 100.0, 100.0)));
+
+        rollup.beginWrite();
+        // the INSERT has committed; a stats request loads and already sees the row
+        assertFalse(rollup.load(withTicket, rollup.generation()));
+        rollup.add(ticket);
+        rollup.endWrite();
+        assertNull(rollup.snapshot(TicketGroupBy.MOVIE));
+
+        assertTrue(rollup.load(withTicket, rollup.generation()));
+        assertEquals(1, rollup.snapshot(TicketGroupBy.MOVIE).get(0).getCount());
+    }
+
+    @Test
+    void loadStartedBeforeAWriteIsDroppedEvenAfterItEnds() {
+        TicketStatsRollup rollup = new TicketStatsRollup();
+        long generation = rollup.generation();
+        rollup.beginWrite();
+        rollup.endWrite();
+
+        assertFalse(rollup.load(Map.of(), generation));
+    }
+}
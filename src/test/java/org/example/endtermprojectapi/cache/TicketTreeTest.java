@@ -0,0 +1,54 @@
+package org.example.endtermprojectapi.cache;
+
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TicketTreeTest {
+
+    @Test
+    void matchesSortedMapUnderRandomWrites() {
+        Random random = new Random(42);
+        TreeMap<Long, TicketResponse> expected = new TreeMap<>();
+        TicketTree tree = TicketTree.empty();
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                tree = tree.remove(id);
+                expected.remove(id);
+            } else {
+                TicketResponse ticket = ticket(id);
+                tree = tree.put(ticket);
+                expected.put(id, ticket);
+            }
+        }
+
+        assertEquals(new ArrayList<>(expected.values()), tree.asList());
+        assertEquals(expected.size(), tree.size());
+    }
+
+    @Test
+    void oldSnapshotIsUnaffectedByLaterWrites() {
+        TicketTree before = TicketTree.ofSorted(List.of(ticket(1), ticket(2), ticket(3)));
+        List<TicketResponse> view = before.asList();
+
+        TicketTree after = before.remove(2).put(ticket(4));
+
+        assertEquals(List.of(1L, 2L, 3L), view.stream().map(TicketResponse::id).toList());
+        assertEquals(List.of(1L, 3L, 4L), after.asList().stream().map(TicketResponse::id).toList());
+        assertSame(view.get(1), before.get(2));
+    }
+
+    private static TicketResponse ticket(long id) {
+        return new TicketResponse(id, 10L, 100L, TicketType.STANDARD, 50.0, 50.0);
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.endtermprojectapi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.StandardTicket;
+import org.example.endtermprojectapi.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two databases on the local Postgres: endterm_db as the primary, endterm_replica standing in for its replica.
+// Nothing replicates between them, so which one answered is visible in the rows that come back.
+@SpringBootTest(properties = {
+        "ticket.datasource.replicas.enabled=true",
+        "ticket.datasource.replicas.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "ticket.datasource.replicas.read-your-writes=300ms",
+        "ticket.datasource.replicas.health-interval=1h"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:postgresql://localhost:5432/endterm_replica";
+    private static final long READ_YOUR_WRITES_MILLIS = 300;
+    private static final long PRIMARY_MOVIE = 1L;
+    private static final long REPLICA_MOVIE = 2L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TicketRepository repository;
+
+    @Autowired
+    private ReadYourWritesFilter filter;
+
+    private ReplicaRoutingDataSource router;
+    private JdbcTemplate replica;
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (jdbcTemplate.queryForList("SELECT 1 FROM pg_database WHERE datname = 'endterm_replica'").isEmpty()) {
+            jdbcTemplate.execute("CREATE DATABASE endterm_replica");
+        }
+        jdbcTemplate.execute("ALTER DATABASE endterm_replica ALLOW_CONNECTIONS true");
+
+        // the routed pool is read-only, so the replica is set up over a plain connection of its own
+        DataSource direct = new DriverManagerDataSource(REPLICA_URL,
+                environment.getProperty("spring.datasource.username"),
+                environment.getProperty("spring.datasource.password"));
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(direct);
+        replica = new JdbcTemplate(direct);
+        router = dataSource.unwrap(ReplicaRoutingDataSource.class);
+
+        insert(jdbcTemplate, PRIMARY_MOVIE);
+        insert(replica, REPLICA_MOVIE);
+        awaitHealthy();
+        // outlast the read-your-writes window that cache refills keep after whatever wrote before this test
+        Thread.sleep(READ_YOUR_WRITES_MILLIS);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("ALTER DATABASE endterm_replica ALLOW_CONNECTIONS true");
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+        replica.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+    }
+
+    @Test
+    void readsGoToTheReplicaAndEverythingElseToThePrimary() {
+        assertEquals(List.of(REPLICA_MOVIE), movies(repository.findByCustomerId(customerId)));
+        assertEquals(List.of(PRIMARY_MOVIE),
+                movies(ReplicaRouting.primary(() -> repository.findByCustomerId(customerId))));
+        assertEquals(List.of(PRIMARY_MOVIE), jdbcTemplate.queryForList(
+                "SELECT movie_id FROM tickets WHERE customer_id = ?", Long.class, customerId));
+    }
+
+    @Test
+    void cacheRefillsRightAfterAWriteStayOnThePrimary() throws InterruptedException {
+        repository.save(new StandardTicket(customerId, 3L, 10.0));
+        assertEquals(List.of(PRIMARY_MOVIE, 3L),
+                movies(ReplicaRouting.refill(() -> repository.findByCustomerId(customerId))));
+
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+        assertEquals(List.of(REPLICA_MOVIE),
+                movies(ReplicaRouting.refill(() -> repository.findByCustomerId(customerId))));
+    }
+
+    @Test
+    void anotherClientsWritesDoNotMoveReadsOffTheReplica() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/tickets"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            while (!done.get()) {
+                                repository.save(new StandardTicket(customerId, 3L, 10.0));
+                                writing.countDown();
+                            }
+                        });
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        writer.start();
+        try {
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 20; i++) {
+                AtomicReference<List<Long>> read = new AtomicReference<>();
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/tickets"), new MockHttpServletResponse(),
+                        (req, res) -> read.set(movies(repository.findByCustomerId(customerId))));
+                assertEquals(List.of(REPLICA_MOVIE), read.get());
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() throws InterruptedException {
+        jdbcTemplate.execute("ALTER DATABASE endterm_replica ALLOW_CONNECTIONS false");
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+                + " WHERE datname = 'endterm_replica'");
+        router.checkHealth();
+
+        assertEquals(0, router.healthyReplicas());
+        assertEquals(List.of(PRIMARY_MOVIE), movies(repository.findByCustomerId(customerId)));
+
+        jdbcTemplate.execute("ALTER DATABASE endterm_replica ALLOW_CONNECTIONS true");
+        awaitHealthy();
+        assertEquals(List.of(REPLICA_MOVIE), movies(repository.findByCustomerId(customerId)));
+    }
+
+    @Test
+    void aWriteRequestKeepsTheClientOnThePrimary() throws Exception {
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        assertTrue(pinned(new MockHttpServletRequest("POST", "/api/tickets"), written));
+        Cookie cookie = written.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest next = new MockHttpServletRequest("GET", "/api/tickets");
+        next.setCookies(cookie);
+        assertTrue(pinned(next, new MockHttpServletResponse()));
+        assertFalse(pinned(new MockHttpServletRequest("GET", "/api/tickets"), new MockHttpServletResponse()));
+        assertFalse(ReplicaRouting.pinnedToPrimary());
+    }
+
+    private boolean pinned(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        FilterChain chain = (req, res) -> pinned.set(ReplicaRouting.pinnedToPrimary());
+        filter.doFilter(request, response, chain);
+        return pinned.get();
+    }
+
+    // the pool reconnects in the background after the replica comes back
+    private void awaitHealthy() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        router.checkHealth();
+        while (router.healthyReplicas() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            router.checkHealth();
+        }
+        assertEquals(1, router.healthyReplicas());
+    }
+
+    private void insert(JdbcTemplate target, long movieId) {
+        target.update("INSERT INTO tickets (customer_id, movie_id, type, base_price, final_price)"
+                + " VALUES (?, ?, 'STANDARD', 10.0, 10.0)", customerId, movieId);
+    }
+
+    private static List<Long> movies(List<TicketResponse> tickets) {
+        return tickets.stream().map(TicketResponse::movieId).toList();
+    }
+}
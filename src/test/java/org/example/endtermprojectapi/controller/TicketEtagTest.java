@@ -0,0 +1,89 @@
+package org.example.endtermprojectapi.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TicketEtagTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+    }
+
+    @Test
+    void conditionalGetAndIfMatch() throws Exception {
+        HttpResponse<String> created = send(request("/api/tickets")
+                .POST(HttpRequest.BodyPublishers.ofString(body(2000.0))));
+        assertEquals(201, created.statusCode());
+        Matcher matcher = ID.matcher(created.body());
+        assertTrue(matcher.find());
+        String path = "/api/tickets/" + matcher.group(1);
+
+        HttpResponse<String> first = send(request(path).GET());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, send(request(path).header("If-None-Match", etag).GET()).statusCode());
+
+        HttpResponse<String> updated = send(request(path).header("If-Match", etag)
+                .PUT(HttpRequest.BodyPublishers.ofString(body(2500.0))));
+        assertEquals(200, updated.statusCode());
+        assertNotEquals(etag, updated.headers().firstValue("ETag").orElseThrow());
+
+        // the old tag is now stale on both paths
+        assertEquals(200, send(request(path).header("If-None-Match", etag).GET()).statusCode());
+        assertEquals(412, send(request(path).header("If-Match", etag)
+                .PUT(HttpRequest.BodyPublishers.ofString(body(3000.0)))).statusCode());
+    }
+
+    @Test
+    void collectionEtagChangesOnWrite() throws Exception {
+        HttpResponse<String> all = send(request("/api/tickets").GET());
+        String etag = all.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, send(request("/api/tickets").header("If-None-Match", etag).GET()).statusCode());
+
+        send(request("/api/tickets").POST(HttpRequest.BodyPublishers.ofString(body(2000.0))));
+
+        assertEquals(200, send(request("/api/tickets").header("If-None-Match", etag).GET()).statusCode());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        String port = environment.getProperty("local.server.port");
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String body(double basePrice) {
+        return "{\"customerId\":" + customerId + ",\"movieId\":101,\"type\":\"VIP\",\"basePrice\":" + basePrice + "}";
+    }
+}
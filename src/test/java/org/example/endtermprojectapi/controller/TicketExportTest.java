@@ -0,0 +1,90 @@
+package org.example.endtermprojectapi.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TicketExportTest {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        for (long movie = 1; movie <= 3; movie++) {
+            jdbcTemplate.update("INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price)"
+                    + " VALUES (?, ?, 'VIP', 100, 150)", customerId, movie);
+        }
+        ids = jdbcTemplate.queryForList("SELECT id FROM tickets WHERE customer_id = ? ORDER BY id", Long.class, customerId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+    }
+
+    @Test
+    void csvRangeExport() throws Exception {
+        HttpResponse<String> response = get("/api/tickets/export?format=csv&fromId=" + ids.get(0) + "&toId=" + ids.get(1));
+
+        assertEquals(200, response.statusCode());
+        List<String> lines = response.body().lines().toList();
+        assertTrue(lines.get(0).startsWith("id,customer_id,movie_id"));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith(ids.get(0) + "," + customerId + ",1,VIP,"));
+    }
+
+    @Test
+    void gzippedNdjsonExport() throws Exception {
+        HttpResponse<byte[]> response = http.send(request("/api/tickets/export?format=ndjson&gzip=true&fromId="
+                + ids.get(0) + "&toId=" + ids.get(2)), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElseThrow());
+        String body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("\"movieId\" : 3") || lines.get(2).contains("\"movieId\":3"), lines.get(2));
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        assertEquals(400, get("/api/tickets/export?format=xml").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return http.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path) {
+        String port = environment.getProperty("local.server.port");
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.endtermprojectapi.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TicketImportTest {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+    }
+
+    @Test
+    void csvWithHeaderInsertsNewRowsAndCountsRejects() throws Exception {
+        jdbcTemplate.update("INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price)"
+                + " VALUES (?, 1, 'VIP', 100, 150)", customerId);
+
+        String csv = "type,base_price,movie_id,customer_id\n"
+                + "VIP,100," + "1," + customerId + "\n"          // already in the table
+                + "vip,80," + "2," + customerId + "\n"
+                + "STANDARD,50," + "2," + customerId + "\n"
+                + "VIP,90," + "2," + customerId + "\n"           // duplicate within the file
+                + "\n"
+                + "GOLD,10," + "3," + customerId + "\n"          // unknown type
+                + "STANDARD,-5," + "3," + customerId + "\n";     // bad price
+
+        HttpResponse<String> response = post("/api/tickets/import", "text/csv", csv);
+
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(response.body().contains("\"received\":6"), response.body());
+        assertTrue(response.body().contains("\"inserted\":2"), response.body());
+        assertTrue(response.body().contains("\"duplicates\":2"), response.body());
+        assertTrue(response.body().contains("\"invalid\":2"), response.body());
+        assertTrue(response.body().contains("line 7: Unknown ticket type"), response.body());
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT movie_id, type, base_price, final_price FROM tickets WHERE customer_id = ? ORDER BY id",
+                customerId);
+        assertEquals(3, rows.size());
+        // first occurrence wins and the VIP markup is applied
+        assertEquals("VIP", rows.get(1).get("type"));
+        assertEquals(80.0, ((Number) rows.get(1).get("base_price")).doubleValue());
+        assertEquals(120.0, ((Number) rows.get(1).get("final_price")).doubleValue());
+        assertEquals(50.0, ((Number) rows.get(2).get("final_price")).doubleValue());
+    }
+
+    @Test
+    void ndjsonIsPickedFromContentType() throws Exception {
+        String ndjson = "{\"customerId\":" + customerId + ",\"movieId\":5,\"type\":\"STANDARD\",\"basePrice\":40}\n"
+                + "{not json}\n";
+
+        HttpResponse<String> response = post("/api/tickets/import", "application/x-ndjson", ndjson);
+
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(response.body().contains("\"inserted\":1"), response.body());
+        assertTrue(response.body().contains("\"invalid\":1"), response.body());
+
+        // the import cleared the cache, so the new row is visible straight away
+        HttpResponse<String> byCustomer = http.send(HttpRequest.newBuilder(
+                uri("/api/tickets?customerId=" + customerId)).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(byCustomer.body().contains("\"movieId\":5"), byCustomer.body());
+    }
+
+    @Test
+    void headerWithoutRequiredColumnIsRejected() throws Exception {
+        HttpResponse<String> response = post("/api/tickets/import", "text/csv",
+                "customer_id,movie_id,type\n" + customerId + ",1,VIP\n");
+
+        assertEquals(400, response.statusCode());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE customer_id = ?", Integer.class, customerId));
+    }
+
+    private HttpResponse<String> post(String path, String contentType, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + environment.getProperty("local.server.port") + path);
+    }
+}
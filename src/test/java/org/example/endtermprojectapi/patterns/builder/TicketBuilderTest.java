@@ -0,0 +1,32 @@
+package org.example.endtermprojectapi.patterns.builder;
+
+import org.example.endtermprojectapi.exception.InvalidInputException;
+import org.example.endtermprojectapi.model.TicketType;
+import org.example.endtermprojectapi.model.VipTicket;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TicketBuilderTest {
+
+    @Test
+    void priceThatIsNotAPositiveFiniteNumberIsRejected() {
+        for (double price : new double[]{0.0, -1.0, Double.NaN, Double.POSITIVE_INFINITY}) {
+            assertThrows(InvalidInputException.class, () -> TicketBuilder.validate(1L, 1L, "VIP", price));
+            assertThrows(InvalidInputException.class, () -> builder("VIP", price).build());
+        }
+    }
+
+    @Test
+    void typeIsNormalized() {
+        assertEquals(TicketType.VIP, TicketBuilder.validate(1L, 1L, " vip ", 10.0));
+        assertInstanceOf(VipTicket.class, builder(" vip ", 10.0).build());
+        assertThrows(InvalidInputException.class, () -> TicketBuilder.validate(1L, 1L, "BALCONY", 10.0));
+    }
+
+    private static TicketBuilder builder(String type, double basePrice) {
+        return new TicketBuilder().customerId(1L).movieId(1L).type(type).basePrice(basePrice);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.endtermprojectapi.pricing;
+
+import org.example.endtermprojectapi.cache.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceTableTest {
+
+    private static final Instant EVENING = Instant.parse("2026-10-18T20:15:00Z");
+    private static final Instant MORNING = Instant.parse("2026-10-18T09:00:00Z");
+
+    @Test
+    void withoutRulesKeepsTheVipAndStandardMarkups() {
+        PriceTable table = PriceTable.defaults(ZoneOffset.UTC);
+
+        assertEquals(150.0, table.finalPrice("VIP", 7, 1, null, 100.0));
+        assertEquals(100.0, table.finalPrice("STANDARD", 7, 1, EVENING, 100.0));
+        assertThrows(IllegalArgumentException.class, () -> table.finalPrice("GOLD", 7, 1, null, 100.0));
+    }
+
+    @Test
+    void mostSpecificRuleWinsAtEqualPriority() {
+        List<PricingRule> rules = List.of(
+                rule(1, "STANDARD", null, null, 0, 24, 1.1, 0, 0),
+                rule(2, "STANDARD", 42L, null, 0, 24, 1.2, 0, 0),
+                rule(3, "STANDARD", 42L, null, 18, 24, 1.3, 0, 0),
+                rule(4, "STANDARD", 42L, "GOLD", 18, 24, 1.0, -5, 0));
+        LongIntHashMap tiers = new LongIntHashMap(4);
+        tiers.put(1000L, 1);
+        PriceTable table = PriceTable.compile(rules, List.of("GOLD"), tiers, ZoneOffset.UTC);
+
+        assertEquals(100.0 * 1.1, table.finalPrice("STANDARD", 7, 1, EVENING, 100.0));
+        assertEquals(100.0 * 1.2, table.finalPrice("STANDARD", 42, 1, MORNING, 100.0));
+        assertEquals(100.0 * 1.2, table.finalPrice("STANDARD", 42, 1, null, 100.0));
+        assertEquals(100.0 * 1.3, table.finalPrice("STANDARD", 42, 1, EVENING, 100.0));
+        assertEquals(95.0, table.finalPrice("STANDARD", 42, 1000, EVENING, 100.0));
+        // VIP has no rules at all
+        assertEquals(150.0, table.finalPrice("VIP", 42, 1000, EVENING, 100.0));
+        assertEquals(4, table.ruleCount());
+    }
+
+    @Test
+    void priorityBeatsSpecificity() {
+        List<PricingRule> rules = List.of(
+                rule(1, "VIP", 42L, null, 0, 24, 2.0, 0, 0),
+                rule(2, "VIP", null, null, 0, 24, 1.0, 10, 5));
+        PriceTable table = PriceTable.compile(rules, List.of(), new LongIntHashMap(4), ZoneOffset.UTC);
+
+        assertEquals(110.0, table.finalPrice("VIP", 42, 1, null, 100.0));
+    }
+
+    @Test
+    void showtimeHoursAreTakenInTheConfiguredZone() {
+        // 20:15 UTC is 22:15 in Berlin (CEST), 16:15 in New York
+        List<PricingRule> rules = List.of(rule(1, "STANDARD", null, null, 22, 24, 2.0, 0, 0));
+
+        PriceTable berlin = PriceTable.compile(rules, List.of(), new LongIntHashMap(4), ZoneId.of("Europe/Berlin"));
+        PriceTable newYork = PriceTable.compile(rules, List.of(), new LongIntHashMap(4), ZoneId.of("America/New_York"));
+
+        assertEquals(200.0, berlin.finalPrice("STANDARD", 1, 1, EVENING, 100.0));
+        assertEquals(100.0, newYork.finalPrice("STANDARD", 1, 1, EVENING, 100.0));
+    }
+
+    private static PricingRule rule(long id, String type, Long movieId, String tier,
+                                    int fromHour, int toHour, double multiplier, double surcharge, int priority) {
+        return new PricingRule(id, type, movieId, tier, fromHour, toHour, multiplier, surcharge, priority);
+    }
+}
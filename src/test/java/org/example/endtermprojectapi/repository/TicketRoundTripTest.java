@@ -0,0 +1,144 @@
+package org.example.endtermprojectapi.repository;
+
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.example.endtermprojectapi.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Pins every ticket endpoint to exactly one statement sent to the database
+@SpringBootTest
+class TicketRoundTripTest {
+
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @TestConfiguration
+    static class CountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource ds) {
+                        return new StatementCountingDataSource(ds);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private TicketService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @BeforeEach
+    void setUp() {
+        service.clearCache();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+        service.clearCache();
+    }
+
+    @Test
+    void eachOperationIsOneRoundTrip() {
+        TicketResponse created = roundTrip(() -> service.create(request(101L)));
+
+        service.clearCache();
+        roundTrip(() -> service.getById(created.id()));
+
+        roundTrip(() -> service.update(created.id(), request(102L)));
+
+        roundTrip(() -> {
+            service.delete(created.id());
+            return null;
+        });
+    }
+
+    @Test
+    void missingIdIsOneRoundTrip() {
+        long missing = Long.MAX_VALUE - 1;
+
+        STATEMENTS.set(0);
+        assertThrows(NotFoundException.class, () -> service.update(missing, request(101L)));
+        assertEquals(1, STATEMENTS.get());
+
+        STATEMENTS.set(0);
+        assertThrows(NotFoundException.class, () -> service.delete(missing));
+        assertEquals(1, STATEMENTS.get());
+    }
+
+    private static <T> T roundTrip(Supplier<T> call) {
+        STATEMENTS.set(0);
+        T result = call.get();
+        assertEquals(1, STATEMENTS.get());
+        return result;
+    }
+
+    private TicketRequest request(long movieId) {
+        TicketRequest req = new TicketRequest();
+        req.setCustomerId(customerId);
+        req.setMovieId(movieId);
+        req.setType("VIP");
+        req.setBasePrice(2000.0);
+        return req;
+    }
+
+    static class StatementCountingDataSource extends DelegatingDataSource {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "createStatement", "prepareCall");
+
+        StatementCountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection target = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    }
+            );
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.endtermprojectapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.endtermprojectapi.dto.HoldRequest;
+import org.example.endtermprojectapi.dto.HoldResponse;
+import org.example.endtermprojectapi.dto.ShowingRequest;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.exception.DuplicateResourceException;
+import org.example.endtermprojectapi.exception.HoldExpiredException;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.example.endtermprojectapi.exception.SeatUnavailableException;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.example.endtermprojectapi.model.TicketType;
+import org.example.endtermprojectapi.repository.SeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "ticket.booking.hold-ttl=300ms",
+        "ticket.booking.tick=20ms",
+        "ticket.booking.sweep-interval=200ms"
+})
+class BookingServiceTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long movieId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @BeforeEach
+    void createShowing() {
+        ShowingRequest showing = new ShowingRequest();
+        showing.setSeats(4);
+        bookingService.putShowing(movieId, showing);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM showings WHERE movie_id = ?", movieId);
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+    }
+
+    @Test
+    void confirmTurnsTheHoldIntoATicket() {
+        HoldResponse held = bookingService.hold(movieId, seats(1, 2));
+        assertThrows(SeatUnavailableException.class, () -> bookingService.hold(movieId, seats(2, 3)));
+
+        HoldResponse confirmed = bookingService.confirm(movieId, held.getHoldId(), ticket());
+
+        assertEquals(HoldResponse.CONFIRMED, confirmed.getStatus());
+        assertNull(confirmed.getExpiresAt());
+        assertNotNull(confirmed.getTicket());
+        assertEquals(customerId, confirmed.getTicket().customerId());
+        assertEquals(movieId, confirmed.getTicket().movieId());
+        assertEquals(List.of(1, 2), confirmed.getSeats());
+
+        // a sold seat never runs out
+        sleep(600);
+        assertEquals(2, bookingService.getShowing(movieId).getAvailable());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seat_holds WHERE movie_id = ? AND status = 'CONFIRMED'",
+                Integer.class, movieId));
+    }
+
+    @Test
+    void releaseGivesTheSeatsBack() {
+        HoldResponse held = bookingService.hold(movieId, seats(3, 4));
+        assertEquals(2, bookingService.getShowing(movieId).getAvailable());
+
+        bookingService.release(movieId, held.getHoldId());
+
+        assertEquals(4, bookingService.getShowing(movieId).getAvailable());
+        assertEquals(List.of(3, 4), bookingService.hold(movieId, seats(3, 4)).getSeats());
+    }
+
+    @Test
+    void expiredHoldsAreGivenBackAndCannotBeConfirmed() {
+        HoldResponse held = bookingService.hold(movieId, seats(1, 2, 3, 4));
+        assertThrows(SeatUnavailableException.class, () -> bookingService.hold(movieId, count(1)));
+
+        sleep(600);
+
+        assertEquals(4, bookingService.getShowing(movieId).getAvailable());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seat_holds WHERE movie_id = ?", Integer.class, movieId));
+        assertThrows(NotFoundException.class, () -> bookingService.confirm(movieId, held.getHoldId(), ticket()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE customer_id = ?", Integer.class, customerId));
+        assertEquals(List.of(1), bookingService.hold(movieId, count(1)).getSeats());
+    }
+
+    @Test
+    void confirmGoesByTheDatabaseClock() {
+        HoldResponse held = bookingService.hold(movieId, seats(1));
+        // as if the hold had been placed long ago and its timer had not fired yet
+        jdbcTemplate.update("UPDATE seat_holds SET expires_at = now() - interval '1 second' WHERE movie_id = ?",
+                movieId);
+
+        assertThrows(HoldExpiredException.class, () -> bookingService.confirm(movieId, held.getHoldId(), ticket()));
+    }
+
+    @Test
+    void aCustomerBooksAShowingOnce() {
+        HoldResponse held = bookingService.hold(movieId, seats(1));
+        assertThrows(DuplicateResourceException.class, () -> bookingService.hold(movieId, seats(3)));
+        assertEquals(3, bookingService.getShowing(movieId).getAvailable());
+
+        bookingService.confirm(movieId, held.getHoldId(), ticket());
+
+        assertThrows(DuplicateResourceException.class, () -> bookingService.hold(movieId, count(1)));
+        assertEquals(3, bookingService.getShowing(movieId).getAvailable());
+    }
+
+    @Test
+    void holdThatCannotBecomeATicketIsGivenBack() {
+        HoldResponse held = bookingService.hold(movieId, seats(1, 2));
+        // e.g. created through POST /api/tickets after the hold was placed
+        jdbcTemplate.update("INSERT INTO tickets (customer_id, movie_id, type, base_price, final_price)"
+                + " VALUES (?, ?, 'STANDARD', 12, 12)", customerId, movieId);
+
+        assertThrows(DuplicateResourceException.class, () -> bookingService.confirm(movieId, held.getHoldId(), ticket()));
+
+        assertEquals(4, bookingService.getShowing(movieId).getAvailable());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seat_holds WHERE movie_id = ?", Integer.class, movieId));
+    }
+
+    @Test
+    void ticketIsTakenBackWhenTheConfirmFails() {
+        SeatRepository seats = mock(SeatRepository.class);
+        TicketService tickets = mock(TicketService.class);
+        BookingService service = new BookingService(seats, tickets, new TicketMetrics(new SimpleMeterRegistry()),
+                Duration.ofMinutes(5), Duration.ofMillis(100), 8, Duration.ofSeconds(30), Duration.ofSeconds(30), 10);
+        UUID holdId = UUID.randomUUID();
+        when(seats.findHold(holdId)).thenReturn(new SeatRepository.HoldRow(movieId, customerId, SeatRepository.HELD,
+                Instant.now().plusSeconds(60), false, List.of(1, 2)));
+        when(tickets.create(any())).thenReturn(
+                new TicketResponse(99L, customerId, movieId, TicketType.STANDARD, 12.0, 12.0));
+        when(seats.confirmHold(holdId, 99L)).thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> service.confirm(movieId, holdId.toString(), ticket()));
+        verify(tickets).delete(99L);
+    }
+
+    private HoldRequest seats(Integer... seats) {
+        HoldRequest request = new HoldRequest();
+        request.setCustomerId(customerId);
+        request.setSeats(List.of(seats));
+        return request;
+    }
+
+    private HoldRequest count(int count) {
+        HoldRequest request = new HoldRequest();
+        request.setCustomerId(customerId);
+        request.setCount(count);
+        return request;
+    }
+
+    private TicketRequest ticket() {
+        TicketRequest request = new TicketRequest();
+        request.setType("STANDARD");
+        request.setBasePrice(12.0);
+        return request;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
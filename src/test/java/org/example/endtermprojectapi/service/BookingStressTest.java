@@ -0,0 +1,98 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.dto.HoldRequest;
+import org.example.endtermprojectapi.dto.HoldResponse;
+import org.example.endtermprojectapi.dto.ShowingRequest;
+import org.example.endtermprojectapi.exception.SeatUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingStressTest {
+
+    private static final int SEATS = 300;
+    private static final int CLIENTS = 10_000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long movieId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM showings WHERE movie_id = ?", movieId);
+    }
+
+    @Test
+    void tenThousandClientsNeverOversellThreeHundredSeats() throws Exception {
+        ShowingRequest showing = new ShowingRequest();
+        showing.setSeats(SEATS);
+        bookingService.putShowing(movieId, showing);
+
+        Queue<HoldResponse> holds = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                long customerId = i + 1;
+                clients.submit(() -> {
+                    start.await();
+                    try {
+                        holds.add(bookingService.hold(movieId, request(customerId)));
+                    } catch (SeatUnavailableException ex) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        failures.add(ex);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertTrue(failures.isEmpty(), () -> "unexpected failure: " + failures.peek());
+        assertEquals(SEATS, holds.size());
+        assertEquals(CLIENTS - SEATS, rejected.get());
+
+        Set<Integer> seats = new HashSet<>();
+        for (HoldResponse hold : holds) {
+            assertTrue(seats.addAll(hold.getSeats()), "seat handed out twice: " + hold.getSeats());
+        }
+        assertEquals(SEATS, seats.size());
+
+        List<Integer> stored = jdbcTemplate.queryForList(
+                "SELECT seat FROM seat_holds WHERE movie_id = ?", Integer.class, movieId);
+        assertEquals(SEATS, stored.size());
+        assertEquals(seats, new HashSet<>(stored));
+        assertEquals(0, bookingService.getShowing(movieId).getAvailable());
+    }
+
+    private static HoldRequest request(long customerId) {
+        HoldRequest request = new HoldRequest();
+        request.setCustomerId(customerId);
+        request.setCount(1);
+        return request;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.repository.PricingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class PricingServiceTest {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private PricingRepository pricingRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+    private final long movieId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+    private final String tier = "T" + customerId;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM pricing_rules WHERE movie_id BETWEEN ? AND ?", movieId, movieId + 4);
+        jdbcTemplate.update("DELETE FROM customer_tiers WHERE customer_id = ?", customerId);
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+        pricingService.reload();
+    }
+
+    @Test
+    void createUsesTheReloadedRules() {
+        addRule("VIP", null, 18, 24, 2.0, 0, 0);
+        pricingService.reload();
+
+        TicketResponse evening = ticketService.create(request("VIP", 100.0, Instant.parse("2026-10-18T19:00:00Z")));
+        TicketResponse noShowtime = ticketService.create(request("STANDARD", 100.0, null));
+
+        assertEquals(200.0, evening.finalPrice());
+        assertEquals(Instant.parse("2026-10-18T19:00:00Z"), evening.showtime());
+        assertEquals(100.0, noShowtime.finalPrice());
+    }
+
+    @Test
+    void sqlRepriceMatchesThePriceTable() {
+        jdbcTemplate.update("INSERT INTO customer_tiers(customer_id, tier) VALUES (?, ?)", customerId, tier);
+        addRule("STANDARD", null, 0, 24, 1.25, 0, 0);
+        addRule("STANDARD", null, 18, 22, 1.5, 0, 0);
+        addRule("STANDARD", tier, 0, 24, 1.0, -2.5, 0);
+        addRule("VIP", null, 0, 24, 1.75, 1, 3);
+        addRule("VIP", tier, 20, 24, 3.0, 0, 1);
+
+        // stored with the old prices: every row is off until repriced
+        Instant[] showtimes = {null, Instant.parse("2026-10-18T19:00:00Z"), Instant.parse("2026-10-18T21:30:00Z"),
+                Instant.parse("2026-10-18T23:00:00Z"), Instant.parse("2026-10-18T08:00:00Z")};
+        for (int i = 0; i < showtimes.length; i++) {
+            for (String type : List.of("VIP", "STANDARD")) {
+                jdbcTemplate.update("INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price, showtime)"
+                                + " VALUES (?, ?, ?, ?, 0, ?)",
+                        customerId, movieId + i, type, 10.0 + i,
+                        showtimes[i] == null ? null : Timestamp.from(showtimes[i]));
+            }
+        }
+        // the tier rules only apply to this customer, a second one prices without them
+        jdbcTemplate.update("INSERT INTO tickets(customer_id, movie_id, type, base_price, final_price, showtime)"
+                + " VALUES (?, ?, 'STANDARD', 40, 0, ?)", customerId + 1, movieId, Timestamp.from(showtimes[1]));
+
+        pricingService.reload();
+        long min = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM tickets WHERE customer_id IN (?, ?)", Long.class, customerId, customerId + 1);
+        long max = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM tickets WHERE customer_id IN (?, ?)", Long.class, customerId, customerId + 1);
+        try {
+            assertEquals(11, pricingRepository.repriceRange(min - 1, max, "UTC"));
+
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT customer_id, movie_id, type, base_price, final_price, showtime FROM tickets"
+                            + " WHERE customer_id IN (?, ?)", customerId, customerId + 1);
+            assertEquals(11, rows.size());
+            for (Map<String, Object> row : rows) {
+                Timestamp showtime = (Timestamp) row.get("showtime");
+                double expected = pricingService.finalPrice(
+                        (String) row.get("type"),
+                        ((Number) row.get("movie_id")).longValue(),
+                        ((Number) row.get("customer_id")).longValue(),
+                        showtime == null ? null : showtime.toInstant(),
+                        ((Number) row.get("base_price")).doubleValue());
+                assertEquals(expected, ((Number) row.get("final_price")).doubleValue(), row.toString());
+            }
+            // a second pass finds nothing left to change
+            assertEquals(0, pricingRepository.repriceRange(min - 1, max, "UTC"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId + 1);
+        }
+    }
+
+    private void addRule(String type, String customerTier, int fromHour, int toHour,
+                         double multiplier, double surcharge, int priority) {
+        // scoped to this test's movie ids so the rest of the table prices as before
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO pricing_rules(ticket_type, movie_id, customer_tier, from_hour, to_hour,"
+                            + " multiplier, surcharge, priority) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    type, movieId + i, customerTier, fromHour, toHour, multiplier, surcharge, priority);
+        }
+    }
+
+    private TicketRequest request(String type, double basePrice, Instant showtime) {
+        TicketRequest request = new TicketRequest();
+        request.setCustomerId(customerId);
+        request.setMovieId(movieId);
+        request.setType(type);
+        request.setBasePrice(basePrice);
+        request.setShowtime(showtime);
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.dto.BatchCreateResponse;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@SpringBootTest
+class TicketBatchThroughputTest {
+
+    private static final int TICKETS = 5_000;
+
+    @Autowired
+    private TicketService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long singleCustomer = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+    private final long batchCustomer = singleCustomer + 1;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id IN (?, ?)", singleCustomer, batchCustomer);
+        service.clearCache();
+    }
+
+    @Test
+    void batchCreateVersusSingleCreate() {
+        List<TicketRequest> single = requests(singleCustomer);
+        List<TicketRequest> batch = requests(batchCustomer);
+
+        long singleStart = System.nanoTime();
+        single.forEach(service::create);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        BatchCreateResponse response = service.createBatch(batch);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        assertEquals(TICKETS, response.getCreated());
+
+        System.out.printf("single create: %d tickets in %d ms (%.0f tickets/s)%n",
+                TICKETS, singleNanos / 1_000_000, TICKETS * 1e9 / singleNanos);
+        System.out.printf("batch create:  %d tickets in %d ms (%.0f tickets/s)%n",
+                TICKETS, batchNanos / 1_000_000, TICKETS * 1e9 / batchNanos);
+        System.out.printf("speed-up: %.1fx%n", (double) singleNanos / batchNanos);
+    }
+
+    private static List<TicketRequest> requests(long customerId) {
+        List<TicketRequest> requests = new ArrayList<>(TICKETS);
+        for (int i = 0; i < TICKETS; i++) {
+            TicketRequest req = new TicketRequest();
+            req.setCustomerId(customerId);
+            req.setMovieId(1L + i);
+            req.setType(i % 2 == 0 ? "VIP" : "STANDARD");
+            req.setBasePrice(1000.0 + i);
+            requests.add(req);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.EndtermProjectApiApplication;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two application contexts, each with its own TicketCache, against the same local Postgres
+class TicketCacheCoherenceTest {
+
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(5);
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @BeforeEach
+    void startNodes() throws InterruptedException {
+        nodeA = start("node-a");
+        nodeB = start("node-b");
+        awaitTrue(() -> nodeA.getBean(TicketCacheCoherence.class).isListening()
+                && nodeB.getBean(TicketCacheCoherence.class).isListening());
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.getBean(JdbcTemplate.class).update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void writesOnOneNodeReachTheOtherNodesCache() throws InterruptedException {
+        TicketService a = nodeA.getBean(TicketService.class);
+        TicketService b = nodeB.getBean(TicketService.class);
+
+        TicketResponse created = a.create(request(2000.0));
+        long id = created.id();
+
+        // B caches the original row and the full list
+        assertEquals(2000.0, b.getById(id).basePrice());
+        assertTrue(b.getAll().stream().anyMatch(t -> t.id() == id));
+
+        a.update(id, request(3000.0));
+        awaitTrue(() -> b.getById(id).basePrice() == 3000.0);
+        awaitTrue(() -> b.getAll().stream().anyMatch(t -> t.id() == id && t.basePrice() == 3000.0));
+
+        a.delete(id);
+        awaitTrue(() -> b.getAll().stream().noneMatch(t -> t.id() == id));
+        assertThrows(NotFoundException.class, () -> b.getById(id));
+    }
+
+    @Test
+    void pricingReloadOnOneNodeReachesTheOtherNode() throws InterruptedException {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        PricingService b = nodeB.getBean(PricingService.class);
+        // a movie id of this test's own, so the rule prices nothing else
+        long movieId = customerId;
+        assertEquals(150.0, b.finalPrice("VIP", movieId, customerId, null, 100.0));
+
+        jdbc.update("INSERT INTO pricing_rules(ticket_type, movie_id, from_hour, to_hour, multiplier, surcharge,"
+                + " priority) VALUES ('VIP', ?, 0, 24, 3.0, 0, 0)", movieId);
+        try {
+            nodeA.getBean(PricingService.class).reload();
+            awaitTrue(() -> b.finalPrice("VIP", movieId, customerId, null, 100.0) == 300.0);
+        } finally {
+            jdbc.update("DELETE FROM pricing_rules WHERE movie_id = ?", movieId);
+            nodeA.getBean(PricingService.class).reload();
+        }
+    }
+
+    private ConfigurableApplicationContext start(String nodeId) {
+        // arguments, not .properties(): those are defaults that application.properties overrides
+        return new SpringApplicationBuilder(EndtermProjectApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--ticket.node-id=" + nodeId,
+                        "--ticket.cache.shared-instance=false",
+                        "--ticket.cache.coherence.enabled=true",
+                        "--ticket.cache.coherence.flush-interval=20ms"
+                );
+    }
+
+    private TicketRequest request(double basePrice) {
+        TicketRequest req = new TicketRequest();
+        req.setCustomerId(customerId);
+        req.setMovieId(101L);
+        req.setType("STANDARD");
+        req.setBasePrice(basePrice);
+        return req;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("change did not propagate within " + PROPAGATION_TIMEOUT);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.model.TicketType;
+import org.example.endtermprojectapi.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketCacheWarmerTest {
+
+    private final TicketRepository repository = mock(TicketRepository.class);
+
+    @Test
+    void catchUpKeepsUnchangedRowsAndRereadsTheRest() {
+        // snapshot has 1..4; since then 2 was updated, 3 deleted and 5 created
+        List<TicketResponse> snapshot = List.of(ticket(1, 1), ticket(2, 1), ticket(3, 1), ticket(4, 1));
+        doAnswer(inv -> {
+            TicketRepository.IdVersionHandler handler = inv.getArgument(1);
+            handler.accept(1, 1);
+            handler.accept(2, 2);
+            handler.accept(4, 1);
+            handler.accept(5, 1);
+            return null;
+        }).when(repository).streamVersions(anyInt(), any());
+        when(repository.findAllById(List.of(2L, 5L))).thenReturn(List.of(ticket(2, 2), ticket(5, 1)));
+
+        TicketCacheWarmer warmer = new TicketCacheWarmer(repository, TicketCache.newInstance(),
+                mock(TicketCacheCoherence.class), true, 100, "", Duration.ZERO);
+        List<TicketResponse> result = warmer.catchUp(snapshot);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L), result.stream().map(TicketResponse::id).toList());
+        assertEquals(2, result.get(1).version());
+        assertEquals(snapshot.get(0), result.get(0));
+    }
+
+    private static TicketResponse ticket(long id, long version) {
+        return new TicketResponse(id, 10L, 100L, TicketType.STANDARD, 50.0, 50.0, version, null);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.endtermprojectapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.endtermprojectapi.dto.BatchCreateResponse;
+import org.example.endtermprojectapi.dto.BatchItemResult;
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.exception.QueueFullException;
+import org.example.endtermprojectapi.metrics.TicketMetrics;
+import org.example.endtermprojectapi.model.TicketType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketIngestQueueTest {
+
+    private final TicketService service = mock(TicketService.class);
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @Test
+    void rejectsWhenTheBufferIsFull() {
+        // the writer is stuck on the first batch, so the buffer fills up
+        blockWrites();
+        TicketIngestQueue queue = queue(2, Duration.ofMillis(200));
+        queue.start();
+        try {
+            List<String> accepted = new ArrayList<>();
+            assertThrows(QueueFullException.class, () -> {
+                for (int i = 0; i < 10; i++) {
+                    accepted.add(queue.submit(request(i)).getTrackingId());
+                }
+            });
+            assertTrue(accepted.size() <= 3);
+        } finally {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void drainsEverythingAcceptedOnStop() {
+        answerCreated();
+        TicketIngestQueue queue = queue(1000, Duration.ofSeconds(10));
+        queue.start();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(queue.submit(request(i)).getTrackingId());
+        }
+        queue.stop();
+
+        assertEquals(0, queue.queued());
+        for (String id : ids) {
+            assertEquals(BatchItemResult.CREATED, queue.status(id).getStatus());
+        }
+        // group commit: far fewer inserts than tickets
+        assertTrue(batches.get() < 500, "batches: " + batches.get());
+        assertThrows(QueueFullException.class, () -> queue.submit(request(1)));
+    }
+
+    private TicketIngestQueue queue(int capacity, Duration drainTimeout) {
+        return new TicketIngestQueue(service, new TicketMetrics(new SimpleMeterRegistry()),
+                true, capacity, 100, drainTimeout, Duration.ofMinutes(1), 10_000);
+    }
+
+    private void answerCreated() {
+        when(service.createBatch(anyList())).thenAnswer(inv -> {
+            batches.incrementAndGet();
+            Thread.sleep(5);
+            List<TicketRequest> requests = inv.getArgument(0);
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(BatchItemResult.created(i, new TicketResponse(
+                        (long) i + 1, requests.get(i).getCustomerId(), 101L, TicketType.VIP, 10.0, 15.0)));
+            }
+            return new BatchCreateResponse(results.size(), 0, results);
+        });
+    }
+
+    private void blockWrites() {
+        when(service.createBatch(anyList())).thenAnswer(inv -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return null;
+        });
+    }
+
+    private static TicketRequest request(int i) {
+        TicketRequest request = new TicketRequest();
+        request.setCustomerId(1_000L + i);
+        request.setMovieId(101L);
+        request.setType("VIP");
+        request.setBasePrice(10.0);
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.dto.TicketRequest;
+import org.example.endtermprojectapi.exception.DuplicateResourceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TicketServiceConcurrencyTest {
+
+    @Autowired
+    private TicketService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long customerId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE customer_id = ?", customerId);
+        service.clearCache();
+    }
+
+    @Test
+    void parallelIdenticalCreatesInsertExactlyOneRow() throws Exception {
+        int threads = 2;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.create(request());
+                        return true;
+                    } catch (DuplicateResourceException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) created++;
+            }
+
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM tickets WHERE customer_id = ?", Integer.class, customerId);
+
+            assertEquals(1, created);
+            assertEquals(1, rows);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TicketRequest request() {
+        TicketRequest req = new TicketRequest();
+        req.setCustomerId(customerId);
+        req.setMovieId(101L);
+        req.setType("VIP");
+        req.setBasePrice(2000.0);
+        return req;
+    }
+}
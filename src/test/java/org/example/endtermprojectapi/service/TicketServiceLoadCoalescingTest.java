@@ -0,0 +1,137 @@
+package org.example.endtermprojectapi.service;
+
+import org.example.endtermprojectapi.cache.TicketCache;
+import org.example.endtermprojectapi.dto.TicketResponse;
+import org.example.endtermprojectapi.exception.NotFoundException;
+import org.example.endtermprojectapi.model.TicketType;
+import org.example.endtermprojectapi.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketServiceLoadCoalescingTest {
+
+    private static final int READERS = 64;
+    private static final long MISSING_ID = 404L;
+
+    private final TicketRepository repository = mock(TicketRepository.class);
+    private final TicketCache cache = TicketCache.newInstance();
+    private final AtomicInteger findAllQueries = new AtomicInteger();
+    private final AtomicInteger findByIdQueries = new AtomicInteger();
+    private final ExecutorService readers = Executors.newFixedThreadPool(READERS);
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        cache.configure(1000, Duration.ofMinutes(1), 16, 1000);
+
+        when(repository.findAll()).thenAnswer(inv -> {
+            findAllQueries.incrementAndGet();
+            Thread.sleep(100);
+            return List.of(
+                    new TicketResponse(1L, 10L, 100L, TicketType.STANDARD, 50.0, 50.0),
+                    new TicketResponse(2L, 11L, 100L, TicketType.VIP, 50.0, 75.0)
+            );
+        });
+        when(repository.findById(anyLong())).thenAnswer(inv -> {
+            findByIdQueries.incrementAndGet();
+            Thread.sleep(100);
+            Long id = inv.getArgument(0);
+            return id == MISSING_ID ? Optional.empty() : Optional.of(new TicketResponse(id, 10L, 100L, TicketType.STANDARD, 50.0, 50.0));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+        refresher.shutdownNow();
+    }
+
+    @Test
+    void concurrentGetAllMissesShareOneQuery() throws Exception {
+        TicketService service = new TicketService(repository, cache, mock(TicketCacheCoherence.class), mock(PricingService.class), refresher, false, false);
+
+        List<List<TicketResponse>> results = runConcurrently(service::getAll);
+
+        assertEquals(1, findAllQueries.get());
+        results.forEach(r -> assertEquals(2, r.size()));
+    }
+
+    @Test
+    void concurrentGetByIdMissesShareOneQuery() throws Exception {
+        TicketService service = new TicketService(repository, cache, mock(TicketCacheCoherence.class), mock(PricingService.class), refresher, false, false);
+
+        List<TicketResponse> results = runConcurrently(() -> service.getById(7L));
+
+        assertEquals(1, findByIdQueries.get());
+        results.forEach(r -> assertEquals(7L, r.id()));
+    }
+
+    @Test
+    void recentMissesAreNotLookedUpAgain() throws Exception {
+        cache.configureMissing(1000, Duration.ofMinutes(1), 16);
+        TicketService service = new TicketService(repository, cache, mock(TicketCacheCoherence.class), mock(PricingService.class), refresher, false, false);
+
+        List<Boolean> found = runConcurrently(() -> service.findById(MISSING_ID).isPresent());
+        assertThrows(NotFoundException.class, () -> service.getById(MISSING_ID));
+
+        assertEquals(1, findByIdQueries.get());
+        found.forEach(f -> assertFalse(f));
+
+        // a write of that id makes it visible right away
+        cache.applyUpsert(new TicketResponse(MISSING_ID, 10L, 100L, TicketType.STANDARD, 50.0, 50.0));
+        assertEquals(MISSING_ID, service.getById(MISSING_ID).id());
+    }
+
+    @Test
+    void staleReadersRunOneBackgroundRefresh() throws Exception {
+        TicketService service = new TicketService(repository, cache, mock(TicketCacheCoherence.class), mock(PricingService.class), refresher, true, false);
+        service.getAll();
+        cache.invalidateAll();
+
+        List<List<TicketResponse>> results = runConcurrently(service::getAll);
+
+        // every reader was answered without waiting for the DB, one refresh ran behind them
+        results.forEach(r -> assertEquals(2, r.size()));
+        refresher.shutdown();
+        refresher.awaitTermination(5, TimeUnit.SECONDS);
+        assertEquals(2, findAllQueries.get());
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            futures.add(readers.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}